@@ -27,6 +27,24 @@ android {
         sourceCompatibility = JavaVersion.VERSION_1_8
         targetCompatibility = JavaVersion.VERSION_1_8
     }
+    testOptions {
+        unitTests {
+            isIncludeAndroidResources = true
+            // Benchmarks are skipped unless dataset sizes are given, e.g.
+            // ./gradlew :app:testDebugUnitTest --tests '*Benchmark' -PbenchmarkSizes=100,1000,10000,100000
+            all {
+                val benchmarkSizes = project.findProperty("benchmarkSizes")
+                if (benchmarkSizes != null) {
+                    it.systemProperty("benchmark.sizes", benchmarkSizes.toString())
+                    it.systemProperty("benchmark.outputDir", layout.buildDirectory.dir("reports/benchmarks").get().asFile.path)
+                    it.maxHeapSize = "2g"
+                    it.testLogging.showStandardStreams = true
+                    // Results must be measured again on every run
+                    it.outputs.upToDateWhen { false }
+                }
+            }
+        }
+    }
 }
 
 dependencies {
@@ -39,4 +57,7 @@ dependencies {
     implementation("com.github.bumptech.glide:glide:4.12.0")
     implementation("com.google.firebase:firebase-storage:20.3.0")
     implementation("com.google.firebase:firebase-database:20.3.0")
+
+    testImplementation("junit:junit:4.13.2")
+    testImplementation("org.robolectric:robolectric:4.11.1")
 }
\ No newline at end of file
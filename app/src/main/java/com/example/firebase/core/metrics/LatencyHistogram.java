@@ -0,0 +1,132 @@
+package com.example.firebase.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size, log-linear latency histogram in the style of HdrHistogram. Values are grouped in
+ * buckets whose width grows with the value, so every recorded latency is kept to within about 3%
+ * from one microsecond up to an hour, in a few kilobytes and without allocating on record.
+ * <p>
+ * Recording is lock-free and safe from any thread. Reads are not atomic across buckets, so a
+ * percentile taken while values are being recorded may miss the most recent ones.
+ */
+public final class LatencyHistogram {
+    // Each power of two is split into 2^(SUB_BUCKET_BITS - 1) linear buckets
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+    // Largest value kept apart; anything slower is counted in the last bucket
+    public static final long MAX_TRACKABLE_MICROS = (1L << 32) - 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(indexOf(MAX_TRACKABLE_MICROS) + 1);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * Records one latency.
+     *
+     * @param micros The latency in microseconds; negative values are recorded as 0.
+     */
+    public void record(long micros) {
+        long value = Math.max(0, Math.min(micros, MAX_TRACKABLE_MICROS));
+        buckets.incrementAndGet(indexOf(value));
+        totalCount.incrementAndGet();
+        totalMicros.addAndGet(value);
+
+        long max = maxMicros.get();
+        while (value > max && !maxMicros.compareAndSet(max, value)) {
+            max = maxMicros.get();
+        }
+    }
+
+    /**
+     * Getter method for the number of recorded values.
+     *
+     * @return The number of values recorded since creation or the last reset.
+     */
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    /**
+     * Getter method for the largest recorded value.
+     *
+     * @return The largest latency in microseconds, or 0 if nothing was recorded.
+     */
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    /**
+     * Getter method for the mean of the recorded values.
+     *
+     * @return The mean latency in microseconds, or 0 if nothing was recorded.
+     */
+    public double getMeanMicros() {
+        long count = totalCount.get();
+        return count == 0 ? 0 : (double) totalMicros.get() / count;
+    }
+
+    /**
+     * Returns the latency below which the given share of recorded values fall.
+     *
+     * @param percentile The percentile, from 0 to 100.
+     * @return The highest value in the bucket holding that percentile, in microseconds, or 0 if
+     * nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100");
+        }
+        long count = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            count += buckets.get(i);
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= target) {
+                // Never report more than was actually seen
+                return Math.min(highestValueIn(i), maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+
+    /**
+     * Clears every recorded value.
+     */
+    public void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+        totalCount.set(0);
+        totalMicros.set(0);
+        maxMicros.set(0);
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        // Drop the low bits that the bucket width at this magnitude cannot tell apart
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return shift * SUB_BUCKET_HALF + (int) (value >>> shift);
+    }
+
+    private static long highestValueIn(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_HALF) / SUB_BUCKET_HALF;
+        long lowest = (long) (index - shift * SUB_BUCKET_HALF) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
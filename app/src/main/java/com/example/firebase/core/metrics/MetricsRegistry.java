@@ -0,0 +1,155 @@
+package com.example.firebase.core.metrics;
+
+import android.util.JsonWriter;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide registry of per-operation latency metrics for the data layers. Operations are
+ * registered by name on first use; names are prefixed with the backend they measure, such as
+ * {@code sqlite.insertNoteData} or {@code firebase.getAllNotesForUser}. Quantities that are not
+ * latencies, such as bytes reclaimed by maintenance, are kept in named counters.
+ * <p>
+ * Snapshots can be read in-process with {@link #snapshot()} or written to a JSON file with
+ * {@link #dump(File)} for field diagnostics.
+ */
+public final class MetricsRegistry {
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    private final ConcurrentHashMap<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    private MetricsRegistry() {
+    }
+
+    /**
+     * Returns the process-wide registry.
+     *
+     * @return The shared registry.
+     */
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the metrics of an operation, registering it on first use.
+     *
+     * @param name The operation name.
+     * @return The metrics recorded under that name.
+     */
+    public OperationMetrics operation(String name) {
+        OperationMetrics metrics = operations.get(name);
+        if (metrics == null) {
+            OperationMetrics created = new OperationMetrics(name);
+            metrics = operations.putIfAbsent(name, created);
+            if (metrics == null) {
+                metrics = created;
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns a named counter, registering it on first use.
+     *
+     * @param name The counter name.
+     * @return The counter kept under that name.
+     */
+    public LongAdder counter(String name) {
+        LongAdder counter = counters.get(name);
+        if (counter == null) {
+            LongAdder created = new LongAdder();
+            counter = counters.putIfAbsent(name, created);
+            if (counter == null) {
+                counter = created;
+            }
+        }
+        return counter;
+    }
+
+    /**
+     * Captures every registered counter.
+     *
+     * @return The counter values, sorted by counter name.
+     */
+    public Map<String, Long> counterValues() {
+        Map<String, Long> values = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+            values.put(entry.getKey(), entry.getValue().sum());
+        }
+        return values;
+    }
+
+    /**
+     * Captures every registered operation.
+     *
+     * @return The snapshots, sorted by operation name.
+     */
+    public List<OperationSnapshot> snapshot() {
+        List<OperationSnapshot> snapshots = new ArrayList<>();
+        for (OperationMetrics metrics : operations.values()) {
+            snapshots.add(metrics.snapshot());
+        }
+        Collections.sort(snapshots, (a, b) -> a.getName().compareTo(b.getName()));
+        return snapshots;
+    }
+
+    /**
+     * Clears the recorded calls of every operation and every counter.
+     */
+    public void reset() {
+        for (OperationMetrics metrics : operations.values()) {
+            metrics.reset();
+        }
+        for (LongAdder counter : counters.values()) {
+            counter.reset();
+        }
+    }
+
+    /**
+     * Writes a snapshot of every operation and counter to a JSON file, replacing the file if it exists.
+     *
+     * @param file The file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void dump(File file) throws IOException {
+        List<OperationSnapshot> snapshots = snapshot();
+        Map<String, Long> counterValues = counterValues();
+        try (JsonWriter writer = new JsonWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            writer.setIndent("  ");
+            writer.beginObject();
+            writer.name("capturedAtMillis").value(System.currentTimeMillis());
+            writer.name("operations").beginArray();
+            for (OperationSnapshot snapshot : snapshots) {
+                writer.beginObject();
+                writer.name("name").value(snapshot.getName());
+                writer.name("count").value(snapshot.getCount());
+                writer.name("errors").value(snapshot.getErrorCount());
+                writer.name("meanMicros").value(Math.round(snapshot.getMeanMicros()));
+                writer.name("p50Micros").value(snapshot.getP50Micros());
+                writer.name("p95Micros").value(snapshot.getP95Micros());
+                writer.name("p99Micros").value(snapshot.getP99Micros());
+                writer.name("maxMicros").value(snapshot.getMaxMicros());
+                writer.endObject();
+            }
+            writer.endArray();
+            writer.name("counters").beginObject();
+            for (Map.Entry<String, Long> entry : counterValues.entrySet()) {
+                writer.name(entry.getKey()).value(entry.getValue());
+            }
+            writer.endObject();
+            writer.endObject();
+        }
+    }
+}
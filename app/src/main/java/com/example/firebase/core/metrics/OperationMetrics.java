@@ -0,0 +1,72 @@
+package com.example.firebase.core.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and error counts of one named operation. Instances are obtained once from
+ * {@link MetricsRegistry#operation(String)} and kept in a field, so timing a call allocates nothing:
+ * <pre>
+ * long start = metrics.start();
+ * ... run the operation ...
+ * metrics.stop(start, isSuccess);
+ * </pre>
+ */
+public final class OperationMetrics {
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errorCount = new LongAdder();
+
+    OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Getter method for the operation name.
+     *
+     * @return The name this operation is registered under.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Starts timing one call.
+     *
+     * @return The start timestamp to pass to {@link #stop}.
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the outcome of one call.
+     *
+     * @param startNanos The value returned by {@link #start()} for this call.
+     * @param isSuccess  Whether the call succeeded; failed calls are timed and counted as errors.
+     */
+    public void stop(long startNanos, boolean isSuccess) {
+        latency.record((System.nanoTime() - startNanos) / 1000);
+        if (!isSuccess) {
+            errorCount.increment();
+        }
+    }
+
+    /**
+     * Captures the current counts and percentiles.
+     *
+     * @return A snapshot of this operation.
+     */
+    public OperationSnapshot snapshot() {
+        return new OperationSnapshot(name, latency.getCount(), errorCount.sum(), latency.getMeanMicros(),
+                latency.getValueAtPercentile(50), latency.getValueAtPercentile(95),
+                latency.getValueAtPercentile(99), latency.getMaxMicros());
+    }
+
+    /**
+     * Clears every recorded call.
+     */
+    public void reset() {
+        latency.reset();
+        errorCount.reset();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.firebase.core.metrics;
+
+import java.util.Locale;
+
+/**
+ * An immutable copy of the metrics of one operation at a point in time. Latencies are in
+ * microseconds.
+ */
+public final class OperationSnapshot {
+    // Fields
+    private final String name;
+    private final long count;         // Calls recorded, successful or not
+    private final long errorCount;    // Calls that failed
+    private final double meanMicros;
+    private final long p50Micros;
+    private final long p95Micros;
+    private final long p99Micros;
+    private final long maxMicros;
+
+    /**
+     * Constructor for creating a new OperationSnapshot object.
+     *
+     * @param name       The operation name.
+     * @param count      The number of calls recorded.
+     * @param errorCount The number of calls that failed.
+     * @param meanMicros The mean latency.
+     * @param p50Micros  The median latency.
+     * @param p95Micros  The 95th percentile latency.
+     * @param p99Micros  The 99th percentile latency.
+     * @param maxMicros  The largest latency.
+     */
+    public OperationSnapshot(String name, long count, long errorCount, double meanMicros,
+                             long p50Micros, long p95Micros, long p99Micros, long maxMicros) {
+        this.name = name;
+        this.count = count;
+        this.errorCount = errorCount;
+        this.meanMicros = meanMicros;
+        this.p50Micros = p50Micros;
+        this.p95Micros = p95Micros;
+        this.p99Micros = p99Micros;
+        this.maxMicros = maxMicros;
+    }
+
+    /**
+     * Getter method for the operation name.
+     *
+     * @return The name the operation is registered under.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Getter method for the call count.
+     *
+     * @return The number of calls recorded, successful or not.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Getter method for the error count.
+     *
+     * @return The number of calls that failed.
+     */
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Getter method for the mean latency.
+     *
+     * @return The mean latency in microseconds.
+     */
+    public double getMeanMicros() {
+        return meanMicros;
+    }
+
+    /**
+     * Getter method for the median latency.
+     *
+     * @return The 50th percentile latency in microseconds.
+     */
+    public long getP50Micros() {
+        return p50Micros;
+    }
+
+    /**
+     * Getter method for the 95th percentile latency.
+     *
+     * @return The 95th percentile latency in microseconds.
+     */
+    public long getP95Micros() {
+        return p95Micros;
+    }
+
+    /**
+     * Getter method for the 99th percentile latency.
+     *
+     * @return The 99th percentile latency in microseconds.
+     */
+    public long getP99Micros() {
+        return p99Micros;
+    }
+
+    /**
+     * Getter method for the largest latency.
+     *
+     * @return The largest latency in microseconds.
+     */
+    public long getMaxMicros() {
+        return maxMicros;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%s count=%d errors=%d mean=%.0fus p50=%dus p95=%dus p99=%dus max=%dus",
+                name, count, errorCount, meanMicros, p50Micros, p95Micros, p99Micros, maxMicros);
+    }
+}
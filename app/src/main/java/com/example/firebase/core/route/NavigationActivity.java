@@ -19,6 +19,8 @@ import androidx.drawerlayout.widget.DrawerLayout;
 import com.example.firebase.R;
 import com.example.firebase.core.auth.AuthenticationActivity;
 import com.example.firebase.note.firebase.presentation.page.NoteActivity;
+import com.example.firebase.note.sqlite.data.data_sources.Database;
+import com.example.firebase.note.sqlite.data.maintenance.NoteMaintenanceJobService;
 import com.google.android.gms.auth.api.signin.GoogleSignIn;
 import com.google.android.gms.auth.api.signin.GoogleSignInAccount;
 import com.google.android.gms.auth.api.signin.GoogleSignInClient;
@@ -63,6 +65,10 @@ public class NavigationActivity extends AppCompatActivity {
         setupListeners();
         // Display user information in the navigation header
         displayUserInfo();
+        // Keep the local note database compact while the device is idle
+        NoteMaintenanceJobService.schedule(this);
+        // Cache Firebase notes on disk before the first fragment reads them
+        com.example.firebase.note.firebase.data.data_sources.Database.enablePersistence();
 
         // If no saved instance state, replace content frame with FeedActivity
         if (savedInstanceState == null) {
@@ -172,6 +178,10 @@ public class NavigationActivity extends AppCompatActivity {
     private void performLocalSignOut() {
         Log.d(TAG, "LocalSignOut Successful");
 
+        // Close the signed-out user's note database before the session ends
+        Database.releaseInstance();
+        // Stop keeping the signed-out user's Firebase notes synced
+        com.example.firebase.note.firebase.data.data_sources.Database.stopKeepingSynced();
         // Sign out from Firebase authentication
         FirebaseAuth.getInstance().signOut();
 
@@ -6,12 +6,19 @@ import android.util.Log;
 
 import androidx.annotation.NonNull;
 
+import com.example.firebase.core.metrics.MetricsRegistry;
+import com.example.firebase.core.metrics.OperationMetrics;
+import com.example.firebase.note.firebase.domain.callback.NoteChangeCallback;
 import com.example.firebase.note.firebase.domain.callback.NoteFetchCallback;
 import com.example.firebase.note.firebase.domain.entities.NoteEntity;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.database.ChildEventListener;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseException;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
 import com.google.firebase.database.Query;
@@ -21,38 +28,88 @@ import com.google.firebase.storage.StorageReference;
 import com.google.firebase.storage.UploadTask;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class Database {
     public static final String TAG = Database.class.getSimpleName();
     private static final String ITEMS_REFERENCE = "notes";
     private static final String PHOTO_REFERENCE = "uploads";
-    private static final String CURRENT_USER_ID = FirebaseAuth.getInstance().getCurrentUser().getUid();
 
-    // Firebase User Information
-    private static final FirebaseAuth firebaseAuth = FirebaseAuth.getInstance();
-    private static final FirebaseUser currentUser = firebaseAuth.getCurrentUser();
-    private static final String currentUserId = currentUser.getUid();
-    private static final String currentUserDisplayPhotoUrl = currentUser.getPhotoUrl().toString();
+    // Latency and error metrics, timed until the server confirms each operation
+    private static final OperationMetrics READ_METRICS = MetricsRegistry.getInstance().operation("firebase.getAllNotesForUser");
+    private static final OperationMetrics ADD_METRICS = MetricsRegistry.getInstance().operation("firebase.addNoteData");
+    private static final OperationMetrics UPDATE_METRICS = MetricsRegistry.getInstance().operation("firebase.updateNoteData");
+    private static final OperationMetrics DELETE_METRICS = MetricsRegistry.getInstance().operation("firebase.deleteNoteData");
 
     // Firebase Database And Storage
     @SuppressLint("StaticFieldLeak")
     private static final FirebaseDatabase database = FirebaseDatabase.getInstance();
     private static final FirebaseStorage storage = FirebaseStorage.getInstance();
+    // Disk cache kept by the Realtime Database client when persistence is enabled
+    public static final long DEFAULT_CACHE_SIZE_BYTES = 20L * 1024 * 1024;
+    private static boolean isPersistenceConfigured;
+    // User whose notes query is kept synced, so it is enabled once and can be undone on sign-out
+    private static String syncedUserId;
+
+    // Firebase user whose notes this data source reads and writes, resolved when it is created
+    private final String currentUserId;
+
+    /**
+     * Constructor for a data source bound to the user signed in at the time of the call, so a
+     * later account switch never reads or writes with a stale id.
+     */
+    public Database() {
+        this.currentUserId = FirebaseAuth.getInstance().getCurrentUser().getUid();
+    }
+
+    /**
+     * Enables the Realtime Database disk cache, so notes already synced render from disk before
+     * the network answers and writes made offline are kept until they can be sent. Must run before
+     * the first read or write; later calls have no effect. The cache holds
+     * {@link #DEFAULT_CACHE_SIZE_BYTES}.
+     */
+    public static void enablePersistence() {
+        enablePersistence(DEFAULT_CACHE_SIZE_BYTES);
+    }
 
     /**
-     * Get the ID of the current Firebase user.
-     * @return The ID of the current Firebase user.
+     * Enables the Realtime Database disk cache with a cache of the given size.
+     *
+     * @param cacheSizeBytes The disk cache size, between 1 MB and 100 MB; least recently used data
+     *                       beyond it is evicted.
      */
-    public static String getCurrentUserId() {
+    public static synchronized void enablePersistence(long cacheSizeBytes) {
+        if (isPersistenceConfigured) {
+            return;
+        }
+        isPersistenceConfigured = true;
+        try {
+            database.setPersistenceCacheSizeBytes(cacheSizeBytes);
+            database.setPersistenceEnabled(true);
+        } catch (DatabaseException e) {
+            // Thrown once the client is in use; it then keeps running from memory only
+            Log.e(TAG, "Could not enable note persistence: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get the ID of the Firebase user this data source belongs to.
+     * @return The ID of the Firebase user.
+     */
+    public String getCurrentUserId() {
         return currentUserId;
     }
 
     /**
      * Get the display photo URL of the current Firebase user.
-     * @return The display photo URL of the current Firebase user.
+     * @return The display photo URL of the current Firebase user, or null if there is none.
      */
-    public static String getCurrentUserDisplayPhotoUrl() { return currentUserDisplayPhotoUrl; }
+    public static String getCurrentUserDisplayPhotoUrl() {
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        return user != null && user.getPhotoUrl() != null ? user.getPhotoUrl().toString() : null;
+    }
 
     /**
      * Get the database reference for items in FirebaseDatabase.
@@ -66,13 +123,108 @@ public class Database {
      * Get the storage reference for photos in FirebaseStorage.
      * @return The storage reference for photos.
      */
-    public static StorageReference getPhotoStorageReferences() {
+    public StorageReference getPhotoStorageReferences() {
         return storage.getReference().child(PHOTO_REFERENCE).child(currentUserId);
     }
 
+    /**
+     * Get the query over the current user's notes. The query is kept synced, so its results stay
+     * fresh in the disk cache even while nothing is listening to it.
+     * @return The query for the current user's notes.
+     */
+    public Query getUserNotesQuery() {
+        keepSynced(currentUserId);
+        return userNotesQuery(currentUserId);
+    }
+
+    /**
+     * Stops keeping the notes of the last synced user fresh in the disk cache. Called on sign-out,
+     * so the client no longer downloads notes of a user who is gone.
+     */
+    public static synchronized void stopKeepingSynced() {
+        if (syncedUserId != null) {
+            userNotesQuery(syncedUserId).keepSynced(false);
+            syncedUserId = null;
+        }
+    }
+
+    // Keeps only the given user's notes synced, switching away from any previous user
+    private static synchronized void keepSynced(String userId) {
+        if (userId.equals(syncedUserId)) {
+            return;
+        }
+        stopKeepingSynced();
+        userNotesQuery(userId).keepSynced(true);
+        syncedUserId = userId;
+    }
+
+    private static Query userNotesQuery(String userId) {
+        return getItemsDatabaseReference().orderByChild("userId").equalTo(userId);
+    }
+
+    /**
+     * Starts listening to the current user's notes child by child, so each change arrives on its
+     * own instead of as a new copy of the whole list. Every existing note is reported as added first.
+     *
+     * @param callback The callback told about each change, on the main thread.
+     * @return The registered listener, to pass to {@link #removeNotesListener}.
+     */
+    public ChildEventListener addNotesListener(final NoteChangeCallback callback) {
+        ChildEventListener listener = new ChildEventListener() {
+            @Override
+            public void onChildAdded(@NonNull DataSnapshot snapshot, String previousChildName) {
+                NoteEntity note = snapshot.getValue(NoteEntity.class);
+                if (note != null) {
+                    callback.onNoteAdded(note, previousChildName);
+                } else {
+                    Log.e(TAG, "Invalid note data encountered, skipping...");
+                }
+            }
+
+            @Override
+            public void onChildChanged(@NonNull DataSnapshot snapshot, String previousChildName) {
+                NoteEntity note = snapshot.getValue(NoteEntity.class);
+                if (note != null) {
+                    callback.onNoteChanged(note, previousChildName);
+                } else {
+                    Log.e(TAG, "Invalid note data encountered, skipping...");
+                }
+            }
+
+            @Override
+            public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+                callback.onNoteRemoved(snapshot.getKey());
+            }
+
+            @Override
+            public void onChildMoved(@NonNull DataSnapshot snapshot, String previousChildName) {
+                callback.onNoteMoved(snapshot.getKey(), previousChildName);
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError databaseError) {
+                Log.e(TAG, "Note sync stopped for user " + currentUserId + ": " + databaseError.getMessage());
+                callback.onSyncFailed(databaseError);
+            }
+        };
+        getUserNotesQuery().addChildEventListener(listener);
+        return listener;
+    }
+
+    /**
+     * Stops a listener added with {@link #addNotesListener}. Does not touch the synced state, so
+     * removing a listener after sign-out never starts syncing the signed-out user's notes again.
+     *
+     * @param listener The listener to remove.
+     */
+    public void removeNotesListener(final ChildEventListener listener) {
+        userNotesQuery(currentUserId).removeEventListener(listener);
+    }
+
     public void getAllNotesForUser(final NoteFetchCallback callback) {
+        final long start = READ_METRICS.start();
         List<NoteEntity> noteEntity = new ArrayList<>();
-        Query query = getItemsDatabaseReference().orderByChild("userId").equalTo(currentUserId);
+        Query query = getUserNotesQuery();
         Log.d(TAG, "Querying for notes with userId: " + currentUserId);
         query.addListenerForSingleValueEvent(new ValueEventListener() {
             @Override
@@ -89,100 +241,107 @@ public class Database {
                     }
                 }
                 Log.i(TAG, "Notes loaded successfully for user: " + currentUserId);
+                READ_METRICS.stop(start, true);
                 callback.onNotesLoaded(noteEntity);
             }
 
             @Override
             public void onCancelled(@NonNull DatabaseError databaseError) {
                 Log.e(TAG, "Error loading notes for user " + getCurrentUserId() + ": " + databaseError.getMessage());
+                READ_METRICS.stop(start, false);
                 callback.onDataLoadFailed(databaseError);
             }
         });
     }
-    public void addNoteData(final String title, final String note, final String date, final Uri imageUri, final String uniqueFileName) {
+    /**
+     * Uploads the photo of a new note, then stores the note with the photo's download URL.
+     *
+     * @param title          The title of the note.
+     * @param note           The content of the note.
+     * @param date           The date of the note.
+     * @param imageUri       The URI of the photo to upload.
+     * @param uniqueFileName The file name the photo is stored under.
+     * @return A task that completes once the server has stored the note, or fails with the first error.
+     */
+    public Task<Void> addNoteData(final String title, final String note, final String date, final Uri imageUri, final String uniqueFileName) {
+        final long start = ADD_METRICS.start();
 
         StorageReference storageReference = getPhotoStorageReferences().child(uniqueFileName);
 
-        UploadTask uploadTask = storageReference.putFile(imageUri);
-        uploadTask.continueWithTask(task -> storageReference.getDownloadUrl())
+        return storageReference.putFile(imageUri)
+                .onSuccessTask(snapshot -> storageReference.getDownloadUrl())
+                .onSuccessTask(downloadUrl -> {
+                    // Generate a unique key for the new item
+                    String _key = getItemsDatabaseReference().push().getKey();
+
+                    // Create and store the upload data
+                    NoteEntity upload = new NoteEntity(_key, title, note, date, uniqueFileName, downloadUrl.toString(), currentUserId);
+                    return getItemsDatabaseReference().child(_key).setValue(upload);
+                })
                 .addOnCompleteListener(task -> {
-                    try {
-                        // Generate a unique key for the new item
-                        String _key = getItemsDatabaseReference().push().getKey();
-                        String _imageUrl = task.getResult().toString();
-
-                        // Create and store the upload data
-                        NoteEntity upload = new NoteEntity(_key, title, note, date, uniqueFileName, _imageUrl, CURRENT_USER_ID);
-                        getItemsDatabaseReference().child(_key).setValue(upload)
-                                .addOnCompleteListener(databaseTask -> {
-                                    if (databaseTask.isSuccessful()) {
-                                        Log.i(TAG, "Note data upload successful");
-                                    } else {
-                                        Log.e(TAG, "Note data upload failed: " + databaseTask.getException().getMessage());
-                                    }
-                                });
-                    } catch (Exception e) {
-                        Log.e(TAG, "Upload failed: " + e.getMessage());
+                    ADD_METRICS.stop(start, task.isSuccessful());
+                    if (task.isSuccessful()) {
+                        Log.i(TAG, "Note data upload successful");
+                    } else {
+                        Log.e(TAG, "Upload failed: " + task.getException());
                     }
-                }).addOnFailureListener(e -> Log.e(TAG, "Upload failed: " + e.getMessage()));
+                });
     }
 
-    public boolean updateNoteData(final String key, final String title, final String note, final String date) {
-        final boolean[] allTasksCompleted = {true}; // Assuming all tasks will be completed initially
-        boolean a = false;
-        getItemsDatabaseReference().child(key).child("title").setValue(title).addOnCompleteListener(task -> {
-            if (task.isSuccessful()) {
-                Log.i(TAG, "Title update successful");
-            } else {
-                Log.e(TAG, "Title update failed: " + task.getException());
-                allTasksCompleted[0] = false; // Set allTasksCompleted to false if any task fails
-            }
-        });
+    /**
+     * Updates the title, note and date of a note in one atomic multi-path write, so listeners
+     * never see a half-updated note and the change costs a single round trip.
+     *
+     * @param key   The key of the note to be updated.
+     * @param title The new title of the note.
+     * @param note  The new content of the note.
+     * @param date  The new date of the note.
+     * @return A task that completes once the server has applied or rejected the whole write.
+     */
+    public Task<Void> updateNoteData(final String key, final String title, final String note, final String date) {
+        final long start = UPDATE_METRICS.start();
+        Map<String, Object> updates = new HashMap<>();
+        updates.put(key + "/title", title);
+        updates.put(key + "/note", note);
+        updates.put(key + "/date", date);
 
-        getItemsDatabaseReference().child(key).child("note").setValue(note).addOnCompleteListener(task -> {
+        return getItemsDatabaseReference().updateChildren(updates).addOnCompleteListener(task -> {
+            UPDATE_METRICS.stop(start, task.isSuccessful());
             if (task.isSuccessful()) {
                 Log.i(TAG, "Note update successful");
             } else {
                 Log.e(TAG, "Note update failed: " + task.getException());
-                allTasksCompleted[0] = false; // Set allTasksCompleted to false if any task fails
             }
         });
-
-        getItemsDatabaseReference().child(key).child("date").setValue(date).addOnCompleteListener(task -> {
-            if (task.isSuccessful()) {
-                Log.i(TAG, "Date update successful");
-            } else {
-                Log.e(TAG, "Date update failed: " + task.getException());
-                allTasksCompleted[0] = false; // Set allTasksCompleted to false if any task fails
-            }
-        });
-
-        return allTasksCompleted[0]; // Return the final value of allTasksCompleted
     }
 
-    public boolean deleteNoteData(final String key, final String fileName) {
-        final boolean[] taskCompleted = {true}; // Assuming tasks will be completed initially
+    /**
+     * Deletes a note and its photo.
+     *
+     * @param key      The key of the note to be deleted.
+     * @param fileName The file name of the note's photo.
+     * @return A task that completes once both deletes have finished, and fails if either failed.
+     */
+    public Task<Void> deleteNoteData(final String key, final String fileName) {
+        final long start = DELETE_METRICS.start();
 
         // Delete data from Firebase Realtime Database
-        getItemsDatabaseReference().child(key).removeValue().addOnCompleteListener(task -> {
+        Task<Void> dataTask = getItemsDatabaseReference().child(key).removeValue().addOnCompleteListener(task -> {
             if (task.isSuccessful()) {
                 Log.i(TAG, "Item data deleted successfully from database");
             } else {
-                Log.e(TAG, "Error deleting item data from database: " + task.getException().getMessage());
-                taskCompleted[0] = false; // Set taskCompleted to false if the task fails
+                Log.e(TAG, "Error deleting item data from database: " + task.getException());
             }
         });
 
         // Delete file from Firebase Storage
-       getPhotoStorageReferences()
+        Task<Void> fileTask = getPhotoStorageReferences()
                 .child(fileName)
                 .delete()
                 .addOnSuccessListener(aVoid -> Log.i(TAG, "File deleted successfully: " + fileName))
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Error deleting file: " + fileName, e);
-                    taskCompleted[0] = false; // Set taskCompleted to false if the task fails
-                });
+                .addOnFailureListener(e -> Log.e(TAG, "Error deleting file: " + fileName, e));
 
-        return taskCompleted[0]; // Return the final value of taskCompleted
+        return Tasks.whenAll(dataTask, fileTask)
+                .addOnCompleteListener(task -> DELETE_METRICS.stop(start, task.isSuccessful()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,50 @@
+package com.example.firebase.note.firebase.domain.callback;
+
+import com.example.firebase.note.firebase.domain.entities.NoteEntity;
+import com.google.firebase.database.DatabaseError;
+
+/**
+ * Callback interface for being told about each note of the current user as it is added, changed,
+ * moved or removed in the database. Positions are given as the key of the note that precedes the
+ * note in query order, or null if it comes first.
+ */
+public interface NoteChangeCallback {
+
+    /**
+     * Called for every existing note when listening starts, then for every note added later.
+     *
+     * @param note        The added note.
+     * @param previousKey The key of the preceding note, or null if the note comes first.
+     */
+    void onNoteAdded(final NoteEntity note, final String previousKey);
+
+    /**
+     * Called when the contents of a note change.
+     *
+     * @param note        The note as it is now stored.
+     * @param previousKey The key of the preceding note, or null if the note comes first.
+     */
+    void onNoteChanged(final NoteEntity note, final String previousKey);
+
+    /**
+     * Called when a note changes position in query order.
+     *
+     * @param key         The key of the moved note.
+     * @param previousKey The key of the note now preceding it, or null if it now comes first.
+     */
+    void onNoteMoved(final String key, final String previousKey);
+
+    /**
+     * Called when a note is removed.
+     *
+     * @param key The key of the removed note.
+     */
+    void onNoteRemoved(final String key);
+
+    /**
+     * Called when the server stops the listener, for example because access was revoked.
+     *
+     * @param databaseError The DatabaseError object containing information about the error.
+     */
+    void onSyncFailed(final DatabaseError databaseError);
+}
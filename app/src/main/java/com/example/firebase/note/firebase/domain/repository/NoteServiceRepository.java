@@ -1,7 +1,9 @@
 package com.example.firebase.note.firebase.domain.repository;
 
 import android.net.Uri;
+import com.example.firebase.note.firebase.domain.callback.NoteChangeCallback;
 import com.example.firebase.note.firebase.domain.callback.NoteLoadedCallback;
+import com.google.android.gms.tasks.Task;
 
 /**
  * Repository interface for performing note-related service operations.
@@ -15,6 +17,20 @@ public interface NoteServiceRepository {
      */
     void readNoteService(final NoteLoadedCallback callback);
 
+    /**
+     * Starts delivering each change to the current user's notes, beginning with every existing note.
+     *
+     * @param callback The callback told about each added, changed, moved or removed note.
+     */
+    void observeNoteService(final NoteChangeCallback callback);
+
+    /**
+     * Stops delivering changes to a callback registered with {@link #observeNoteService}.
+     *
+     * @param callback The callback to stop.
+     */
+    void stopObservingNoteService(final NoteChangeCallback callback);
+
     /**
      * Adds a new note to the service.
      *
@@ -23,9 +39,9 @@ public interface NoteServiceRepository {
      * @param date           The date of the note.
      * @param imageUri       The URI of the image associated with the note.
      * @param uniqueFileName The unique file name of the image.
-     * @return True if the note is added successfully, false otherwise.
+     * @return A task that completes once the server has stored the note, or fails with the error.
      */
-    boolean addNoteService(final String title, final String note, final String date, final Uri imageUri, final String uniqueFileName);
+    Task<Void> addNoteService(final String title, final String note, final String date, final Uri imageUri, final String uniqueFileName);
 
     /**
      * Updates an existing note in the service.
@@ -34,16 +50,16 @@ public interface NoteServiceRepository {
      * @param title  The new title of the note.
      * @param note   The new content of the note.
      * @param date   The new date of the note.
-     * @return True if the note is updated successfully, false otherwise.
+     * @return A task that completes once the server has applied the update, or fails with the error.
      */
-    boolean updateNoteService(final String key, final String title, final String note, final String date);
+    Task<Void> updateNoteService(final String key, final String title, final String note, final String date);
 
     /**
      * Deletes a note from the service.
      *
      * @param key      The key of the note to be deleted.
      * @param fileName The file name of the associated image to be deleted.
-     * @return True if the note is deleted successfully, false otherwise.
+     * @return A task that completes once the note and its image are deleted, or fails with the error.
      */
-    boolean deleteNoteService(final String key, final String fileName);
+    Task<Void> deleteNoteService(final String key, final String fileName);
 }
\ No newline at end of file
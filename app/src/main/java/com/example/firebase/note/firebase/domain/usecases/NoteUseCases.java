@@ -5,16 +5,22 @@ import android.text.TextUtils;
 import android.util.Log;
 
 import com.example.firebase.note.firebase.data.data_sources.Database;
+import com.example.firebase.note.firebase.domain.callback.NoteChangeCallback;
 import com.example.firebase.note.firebase.domain.callback.NoteFetchCallback;
 import com.example.firebase.note.firebase.domain.callback.NoteLoadedCallback;
 import com.example.firebase.note.firebase.domain.entities.NoteEntity;
 import com.example.firebase.note.firebase.domain.repository.NoteCheckerRepository;
 import com.example.firebase.note.firebase.domain.repository.NoteServiceRepository;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.database.ChildEventListener;
 import com.google.firebase.database.DatabaseError;
 
 import androidx.fragment.app.Fragment;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The NoteUseCases class is responsible for managing the business logic related to CRUD (Create, Read, Update, Delete)
@@ -62,7 +68,8 @@ import java.util.List;
  * String content = "This is a new note.";
  * String date = "2023-05-01";
  * if (noteUseCases.addNoteChecker(title, content, date)) {
- *     noteUseCases.addNoteService(title, content, date);
+ *     noteUseCases.addNoteService(title, content, date)
+ *             .addOnSuccessListener(unused -> onNoteRead());
  * }
  *
  * // Update an existing note
@@ -82,6 +89,8 @@ import java.util.List;
  */
 public abstract class NoteUseCases extends Fragment implements NoteCheckerRepository, NoteServiceRepository {
     private final static String TAG = NoteUseCases.class.getSimpleName();
+    // Stops the listener of each observing callback
+    private final Map<NoteChangeCallback, Runnable> noteObservations = new HashMap<>();
 
     /**
      * Validates input data before adding a new note.
@@ -201,6 +210,34 @@ public abstract class NoteUseCases extends Fragment implements NoteCheckerReposi
         });
     }
 
+    /**
+     * Starts delivering each change to the current user's notes, beginning with every existing note.
+     *
+     * @param callback The callback told about each added, changed, moved or removed note.
+     */
+    @Override
+    public void observeNoteService(final NoteChangeCallback callback) {
+        if (noteObservations.containsKey(callback)) {
+            return;
+        }
+        Database database = new Database();
+        ChildEventListener listener = database.addNotesListener(callback);
+        noteObservations.put(callback, () -> database.removeNotesListener(listener));
+    }
+
+    /**
+     * Stops delivering changes to a callback registered with {@link #observeNoteService}.
+     *
+     * @param callback The callback to stop.
+     */
+    @Override
+    public void stopObservingNoteService(final NoteChangeCallback callback) {
+        Runnable stop = noteObservations.remove(callback);
+        if (stop != null) {
+            stop.run();
+        }
+    }
+
     /**
      * Adds a new note to the service.
      *
@@ -209,18 +246,22 @@ public abstract class NoteUseCases extends Fragment implements NoteCheckerReposi
      * @param date           The date of the note.
      * @param imageUri       The URI of the image associated with the note.
      * @param uniqueFileName The unique file name of the image.
-     * @return True if the note is added successfully, false otherwise.
+     * @return A task that completes once the server has stored the note, or fails with the error.
      */
     @Override
-    public boolean addNoteService(final String title, final String note, final String date, final Uri imageUri, final String uniqueFileName) {
-        Database database = new Database();
+    public Task<Void> addNoteService(final String title, final String note, final String date, final Uri imageUri, final String uniqueFileName) {
         try {
-            database.addNoteData(title, note, date, imageUri, uniqueFileName);
-            Log.i(TAG, "Note added successfully.");
-            return true;
+            Database database = new Database();
+            return database.addNoteData(title, note, date, imageUri, uniqueFileName).addOnCompleteListener(task -> {
+                if (task.isSuccessful()) {
+                    Log.i(TAG, "Note added successfully.");
+                } else {
+                    Log.e(TAG, "Failed to add note.", task.getException());
+                }
+            });
         } catch (Exception e) {
             Log.e(TAG, "Failed to add note: " + e.getMessage(), e);
-            return false;
+            return Tasks.forException(e);
         }
     }
 
@@ -231,23 +272,22 @@ public abstract class NoteUseCases extends Fragment implements NoteCheckerReposi
      * @param title  The new title of the note.
      * @param note   The new content of the note.
      * @param date   The new date of the note.
-     * @return True if the note is updated successfully, false otherwise.
+     * @return A task that completes once the server has applied the update, or fails with the error.
      */
     @Override
-    public boolean updateNoteService(final String key, final String title, final String note, final String date) {
-        Database database = new Database();
+    public Task<Void> updateNoteService(final String key, final String title, final String note, final String date) {
         try {
-            boolean success = database.updateNoteData(key, title, note, date);
-            if (success) {
-                Log.i(TAG, "Note updated successfully.");
-                return true;
-            } else {
-                Log.e(TAG, "Failed to update note.");
-                return false;
-            }
+            Database database = new Database();
+            return database.updateNoteData(key, title, note, date).addOnCompleteListener(task -> {
+                if (task.isSuccessful()) {
+                    Log.i(TAG, "Note updated successfully.");
+                } else {
+                    Log.e(TAG, "Failed to update note.", task.getException());
+                }
+            });
         } catch (Exception e) {
             Log.e(TAG, "Failed to update note: " + e.getMessage(), e);
-            return false;
+            return Tasks.forException(e);
         }
     }
 
@@ -256,23 +296,22 @@ public abstract class NoteUseCases extends Fragment implements NoteCheckerReposi
      *
      * @param key      The key of the note to be deleted.
      * @param fileName The file name of the associated image.
-     * @return True if the note is deleted successfully, false otherwise.
+     * @return A task that completes once the note and its image are deleted, or fails with the error.
      */
     @Override
-    public boolean deleteNoteService(final String key, final String fileName) {
-        Database database = new Database();
+    public Task<Void> deleteNoteService(final String key, final String fileName) {
         try {
-            boolean isDeleted = database.deleteNoteData(key, fileName);
-            if (isDeleted) {
-                Log.i(TAG, "Note deleted successfully.");
-                return true;
-            } else {
-                Log.e(TAG, "Failed to delete note.");
-                return false;
-            }
+            Database database = new Database();
+            return database.deleteNoteData(key, fileName).addOnCompleteListener(task -> {
+                if (task.isSuccessful()) {
+                    Log.i(TAG, "Note deleted successfully.");
+                } else {
+                    Log.e(TAG, "Failed to delete note.", task.getException());
+                }
+            });
         } catch (Exception e) {
             Log.e(TAG, "Failed to delete note: " + e.getMessage(), e);
-            return false;
+            return Tasks.forException(e);
         }
     }
-}
\ No newline at end of file
+}
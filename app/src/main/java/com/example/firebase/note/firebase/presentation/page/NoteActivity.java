@@ -18,7 +18,7 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.bumptech.glide.Glide;
 import com.example.firebase.R;
-import com.example.firebase.note.firebase.domain.callback.NoteLoadedCallback;
+import com.example.firebase.note.firebase.domain.callback.NoteChangeCallback;
 import com.example.firebase.note.firebase.domain.entities.NoteEntity;
 import com.example.firebase.note.firebase.domain.usecases.NoteUseCases;
 import com.example.firebase.note.firebase.presentation.listener.NoteClickListener;
@@ -26,6 +26,7 @@ import com.example.firebase.note.firebase.presentation.widget.NoteHolder;
 import com.example.firebase.note.firebase.presentation.widget.DatePicker;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.google.android.material.floatingactionbutton.ExtendedFloatingActionButton;
+import com.google.firebase.database.DatabaseError;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -35,6 +36,54 @@ public class NoteActivity extends NoteUseCases implements NoteClickListener {
     private NoteHolder noteAdapter;
     private ImageView uploadImageView;
     private Uri imageUri;
+    // Applies each synced change to the loaded rows instead of reloading the list
+    private final NoteChangeCallback noteChangeCallback = new NoteChangeCallback() {
+        @Override
+        public void onNoteAdded(NoteEntity note, String previousKey) {
+            int index = indexAfter(previousKey);
+            noteList.add(index, note);
+            noteAdapter.notifyItemInserted(index);
+        }
+
+        @Override
+        public void onNoteChanged(NoteEntity note, String previousKey) {
+            int index = indexOfKey(note.getKey());
+            if (index >= 0) {
+                noteList.set(index, note);
+                noteAdapter.notifyItemChanged(index);
+            } else {
+                onNoteAdded(note, previousKey);
+            }
+        }
+
+        @Override
+        public void onNoteMoved(String key, String previousKey) {
+            int fromIndex = indexOfKey(key);
+            if (fromIndex < 0) {
+                return;
+            }
+            NoteEntity note = noteList.remove(fromIndex);
+            int toIndex = indexAfter(previousKey);
+            noteList.add(toIndex, note);
+            noteAdapter.notifyItemMoved(fromIndex, toIndex);
+        }
+
+        @Override
+        public void onNoteRemoved(String key) {
+            int index = indexOfKey(key);
+            if (index >= 0) {
+                noteList.remove(index);
+                noteAdapter.notifyItemRemoved(index);
+            }
+        }
+
+        @Override
+        public void onSyncFailed(DatabaseError databaseError) {
+            if (isAdded()) {
+                Toast.makeText(requireContext(), "Failed to sync notes: " + databaseError.getMessage(), Toast.LENGTH_SHORT).show();
+            }
+        }
+    };
 
     /** @noinspection deprecation*/
     @Override
@@ -62,17 +111,38 @@ public class NoteActivity extends NoteUseCases implements NoteClickListener {
         return rootView;
     }
 
+    @Override
+    public void onDestroyView() {
+        stopObservingNoteService(noteChangeCallback);
+        super.onDestroyView();
+    }
+
     @SuppressLint("NotifyDataSetChanged")
     @Override
     public void onNoteRead() {
+        // Existing notes are replayed as additions, then each later change arrives on its own
+        stopObservingNoteService(noteChangeCallback);
         noteList.clear();
-        readNoteService(new NoteLoadedCallback() {
-            @Override
-            public void onNotesLoaded(List<NoteEntity> notes) {
-                noteList.addAll(notes);
-                noteAdapter.notifyDataSetChanged();
+        noteAdapter.notifyDataSetChanged();
+        observeNoteService(noteChangeCallback);
+    }
+
+    private int indexOfKey(String key) {
+        for (int i = 0; i < noteList.size(); i++) {
+            if (key.equals(noteList.get(i).getKey())) {
+                return i;
             }
-        });
+        }
+        return -1;
+    }
+
+    private int indexAfter(String previousKey) {
+        if (previousKey == null) {
+            return 0;
+        }
+        // A preceding note that was skipped as invalid leaves the new one at the end
+        int previousIndex = indexOfKey(previousKey);
+        return previousIndex >= 0 ? previousIndex + 1 : noteList.size();
     }
 
     /** @noinspection deprecation*/
@@ -94,13 +164,17 @@ public class NoteActivity extends NoteUseCases implements NoteClickListener {
                     String _fileName = "image_" + System.currentTimeMillis() + ".jpg";
 
                     if (addNoteChecker(_title, _note, _date, imageUri, _fileName)) {
-                        boolean isAdded = addNoteService(_title, _note, _date, imageUri, _fileName);
-                        if (isAdded) {
-                            onNoteRead();
-                            Toast.makeText(requireContext(), "Note added successfully", Toast.LENGTH_SHORT).show();
-                        } else {
-                            Toast.makeText(requireContext(), "Failed to add note. Please try again.", Toast.LENGTH_SHORT).show();
-                        }
+                        // The note reaches the list through the change listener; this only reports the outcome
+                        addNoteService(_title, _note, _date, imageUri, _fileName).addOnCompleteListener(task -> {
+                            if (!isAdded()) {
+                                return;
+                            }
+                            if (task.isSuccessful()) {
+                                Toast.makeText(requireContext(), "Note added successfully", Toast.LENGTH_SHORT).show();
+                            } else {
+                                Toast.makeText(requireContext(), "Failed to add note. Please try again.", Toast.LENGTH_SHORT).show();
+                            }
+                        });
                     } else {
                         Toast.makeText(requireContext(), "Failed to add note: Invalid data", Toast.LENGTH_SHORT).show();
                     }
@@ -118,7 +192,6 @@ public class NoteActivity extends NoteUseCases implements NoteClickListener {
         _dateTextView.setOnClickListener(view -> DatePicker.showDatePickerDialog(requireContext(), _dateTextView));
      }
 
-
     @Override
     public void onNoteUpdate(@NonNull ViewGroup container, final int position, @NonNull NoteEntity note) {
         View dialogView = LayoutInflater.from(getContext())
@@ -138,19 +211,22 @@ public class NoteActivity extends NoteUseCases implements NoteClickListener {
                 .setTitle("Edit Note")
                 .setView(dialogView)
                 .setPositiveButton("Update", (dialog, which) -> {
-                    String _key = noteList.get(position).getKey();
+                    String _key = note.getKey();
                     String _title = _titleEditText.getText().toString();
                     String _note = _noteEditText.getText().toString();
                     String _date = _dateTextView.getText().toString();
 
                     if (updateNoteChecker(_key, _title, _note, _date)) {
-                        boolean isUpdated = updateNoteService(_key, _title, _note, _date);
-                        if (isUpdated) {
-                            onNoteRead();
-                            Toast.makeText(requireContext(), "Note updated successfully", Toast.LENGTH_SHORT).show();
-                        } else {
-                            Toast.makeText(requireContext(), "Failed to update note. Please try again.", Toast.LENGTH_SHORT).show();
-                        }
+                        updateNoteService(_key, _title, _note, _date).addOnCompleteListener(task -> {
+                            if (!isAdded()) {
+                                return;
+                            }
+                            if (task.isSuccessful()) {
+                                Toast.makeText(requireContext(), "Note updated successfully", Toast.LENGTH_SHORT).show();
+                            } else {
+                                Toast.makeText(requireContext(), "Failed to update note. Please try again.", Toast.LENGTH_SHORT).show();
+                            }
+                        });
                     } else {
                         Toast.makeText(requireContext(), "Failed to update note: Invalid data", Toast.LENGTH_SHORT).show();
                     }
@@ -167,13 +243,16 @@ public class NoteActivity extends NoteUseCases implements NoteClickListener {
         String fileName = note.getFileName();
 
         if (deleteNoteChecker(key, fileName)) {
-            boolean isDeleted = deleteNoteService(key, fileName);
-            if (isDeleted) {
-                onNoteRead();
-                Toast.makeText(requireContext(), "Note deleted successfully", Toast.LENGTH_SHORT).show();
-            } else {
-                Toast.makeText(requireContext(), "Failed to delete note. Please try again.", Toast.LENGTH_SHORT).show();
-            }
+            deleteNoteService(key, fileName).addOnCompleteListener(task -> {
+                if (!isAdded()) {
+                    return;
+                }
+                if (task.isSuccessful()) {
+                    Toast.makeText(requireContext(), "Note deleted successfully", Toast.LENGTH_SHORT).show();
+                } else {
+                    Toast.makeText(requireContext(), "Failed to delete note. Please try again.", Toast.LENGTH_SHORT).show();
+                }
+            });
         } else {
             Toast.makeText(requireContext(), "Failed to delete note: Invalid note ID", Toast.LENGTH_SHORT).show();
         }
@@ -0,0 +1,69 @@
+package com.example.firebase.note.sqlite.data.data_sources;
+
+/**
+ * Describes how the write-ahead log of the note database is checkpointed back into the main
+ * database file.
+ */
+public class CheckpointPolicy {
+    /**
+     * Checkpoint modes understood by {@code PRAGMA wal_checkpoint}.
+     */
+    public enum Mode {
+        PASSIVE,
+        FULL,
+        RESTART,
+        TRUNCATE
+    }
+
+    // SQLite's own default for wal_autocheckpoint
+    public static final int DEFAULT_AUTO_CHECKPOINT_PAGES = 1000;
+
+    private final int autoCheckpointPages;
+    private final Mode manualMode;
+
+    /**
+     * Constructor for creating a new checkpoint policy.
+     *
+     * @param autoCheckpointPages The WAL size in pages that triggers an automatic checkpoint,
+     *                            or 0 to disable automatic checkpoints.
+     * @param manualMode          The mode used when a checkpoint is requested explicitly.
+     */
+    public CheckpointPolicy(int autoCheckpointPages, Mode manualMode) {
+        if (autoCheckpointPages < 0) {
+            throw new IllegalArgumentException("autoCheckpointPages must not be negative");
+        }
+        if (manualMode == null) {
+            throw new IllegalArgumentException("manualMode must not be null");
+        }
+        this.autoCheckpointPages = autoCheckpointPages;
+        this.manualMode = manualMode;
+    }
+
+    /**
+     * Returns the policy used when none has been configured: SQLite's default automatic
+     * checkpoint threshold and passive manual checkpoints that never block readers.
+     *
+     * @return The default checkpoint policy.
+     */
+    public static CheckpointPolicy defaultPolicy() {
+        return new CheckpointPolicy(DEFAULT_AUTO_CHECKPOINT_PAGES, Mode.PASSIVE);
+    }
+
+    /**
+     * Getter method for the automatic checkpoint threshold.
+     *
+     * @return The WAL size in pages that triggers an automatic checkpoint.
+     */
+    public int getAutoCheckpointPages() {
+        return autoCheckpointPages;
+    }
+
+    /**
+     * Getter method for the manual checkpoint mode.
+     *
+     * @return The mode used by explicit checkpoints.
+     */
+    public Mode getManualMode() {
+        return manualMode;
+    }
+}
@@ -1,18 +1,40 @@
 package com.example.firebase.note.sqlite.data.data_sources;
 
-import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
+import android.database.DatabaseUtils;
 import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import android.os.CancellationSignal;
 import android.util.Log;
+import android.util.LongSparseArray;
 
+import androidx.annotation.VisibleForTesting;
+
+import com.example.firebase.core.metrics.MetricsRegistry;
+import com.example.firebase.core.metrics.OperationMetrics;
+import com.example.firebase.note.sqlite.data.migrations.MigrationRunner;
+import com.example.firebase.note.sqlite.domain.callback.NoteTransferListener;
+import com.example.firebase.note.sqlite.domain.entities.BatchResult;
+import com.example.firebase.note.sqlite.domain.entities.MaintenanceReport;
+import com.example.firebase.note.sqlite.domain.entities.NoteChangeEvent;
 import com.example.firebase.note.sqlite.domain.entities.NoteEntity;
+import com.example.firebase.note.sqlite.domain.entities.NotePage;
+import com.example.firebase.note.sqlite.domain.entities.SearchResult;
+import com.example.firebase.note.sqlite.domain.entities.TransferResult;
 import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.PriorityQueue;
 
 /**
  * Helper class for managing SQLite database operations.
@@ -20,11 +42,47 @@ import java.util.List;
 public class Database extends SQLiteOpenHelper {
     // Tag for logging purposes
     public static final String TAG = Database.class.getSimpleName();
-    // User ID from Firebase Auth
-    private static final String CURRENT_USER_ID = FirebaseAuth.getInstance().getCurrentUser().getUid();
-    // Database name and version
-    private static final String DATABASE_NAME = "notes.db";
-    private static final int DATABASE_VERSION = 1;
+    // Database file name of each user, completed by their sanitised id, and version
+    private static final String DATABASE_NAME_PREFIX = "notes_";
+    private static final int DATABASE_VERSION = 6;
+    // Version of the schema built by onCreate before migrations are applied
+    private static final int BASE_VERSION = 1;
+
+    // Latency and error metrics of every public operation
+    private static final OperationMetrics READ_ALL_METRICS = MetricsRegistry.getInstance().operation("sqlite.getAllNotesForUser");
+    private static final OperationMetrics READ_PAGE_METRICS = MetricsRegistry.getInstance().operation("sqlite.getNotePage");
+    private static final OperationMetrics READ_BY_ID_METRICS = MetricsRegistry.getInstance().operation("sqlite.getNoteById");
+    private static final OperationMetrics READ_PREVIEWS_METRICS = MetricsRegistry.getInstance().operation("sqlite.getNotePreviewsByIds");
+    private static final OperationMetrics READ_BETWEEN_METRICS = MetricsRegistry.getInstance().operation("sqlite.getNotesBetween");
+    private static final OperationMetrics READ_RECENT_METRICS = MetricsRegistry.getInstance().operation("sqlite.getMostRecentNotes");
+    private static final OperationMetrics SEARCH_METRICS = MetricsRegistry.getInstance().operation("sqlite.searchNotes");
+    private static final OperationMetrics INSERT_METRICS = MetricsRegistry.getInstance().operation("sqlite.insertNoteData");
+    private static final OperationMetrics UPDATE_METRICS = MetricsRegistry.getInstance().operation("sqlite.updateNoteData");
+    private static final OperationMetrics DELETE_METRICS = MetricsRegistry.getInstance().operation("sqlite.deleteNoteById");
+    private static final OperationMetrics RESTORE_METRICS = MetricsRegistry.getInstance().operation("sqlite.restoreNoteById");
+    private static final OperationMetrics INSERT_BATCH_METRICS = MetricsRegistry.getInstance().operation("sqlite.insertNotesData");
+    private static final OperationMetrics UPDATE_BATCH_METRICS = MetricsRegistry.getInstance().operation("sqlite.updateNotesData");
+    private static final OperationMetrics DELETE_BATCH_METRICS = MetricsRegistry.getInstance().operation("sqlite.deleteNotesById");
+    private static final OperationMetrics EXPORT_METRICS = MetricsRegistry.getInstance().operation("sqlite.exportNotes");
+    private static final OperationMetrics IMPORT_METRICS = MetricsRegistry.getInstance().operation("sqlite.importNotes");
+    private static final OperationMetrics CHECKPOINT_METRICS = MetricsRegistry.getInstance().operation("sqlite.checkpoint");
+    private static final OperationMetrics MAINTENANCE_METRICS = MetricsRegistry.getInstance().operation("sqlite.maintenance");
+
+    // Process-wide instance shared by every caller
+    private static Database instance;
+    // User whose notes this helper reads and writes
+    private final String currentUserId;
+    private final Context context;
+    // Write-through cache of notes and per-user note lists
+    private final NoteCache noteCache = new NoteCache(NoteCache.DEFAULT_MAX_CHARS);
+    // Publishes the rows changed by each committed write
+    private final NoteChangeTracker changeTracker = new NoteChangeTracker();
+    // How the write-ahead log is folded back into the database file
+    private volatile CheckpointPolicy checkpointPolicy = CheckpointPolicy.defaultPolicy();
+    // How note bodies are encoded when written; stored rows are decoded whatever the setting
+    private volatile NoteBodyCodec bodyCodec = NoteBodyCodec.plain();
+    // Compiled write statements of the open connection, guarded by the helper's monitor
+    private StatementCache statementCache;
 
     // Table and column names
     public static final String TABLE_NOTE_TABLE = "notetable";
@@ -33,14 +91,271 @@ public class Database extends SQLiteOpenHelper {
     public static final String COLUMN_NOTE = "note";
     public static final String COLUMN_DATE = "date";
     public static final String COLUMN_USER_REFERENCE = "user_id";
+    // Note date as days since 1970-01-01, used for sorting and range filters
+    public static final String COLUMN_DAY = "day";
+    // How the note column is encoded, one of the NoteBodyCodec.CODEC_* values
+    public static final String COLUMN_CODEC = "codec";
+    // Start of a compressed note body, for list queries
+    public static final String COLUMN_PREVIEW = "preview";
+    // When the note was deleted, in epoch milliseconds, or NULL while it is live
+    public static final String COLUMN_DELETED_AT = "deleted_at";
+
+    // Full-text index over the title and note columns of plain rows, kept in sync by triggers
+    public static final String TABLE_NOTE_SEARCH = "notetable_fts";
+    // Full-text index over the title and preview of compressed rows, kept in sync by triggers
+    public static final String TABLE_PACKED_NOTE_SEARCH = "notetable_fts_packed";
+    private static final String[] SEARCH_TABLES = {TABLE_NOTE_SEARCH, TABLE_PACKED_NOTE_SEARCH};
+    // Title hits count more than body hits when ranking search results
+    private static final MatchInfoRanker SEARCH_RANKER = new MatchInfoRanker(2.0, 1.0);
+
+    // Separates the keyset columns inside a page token
+    private static final char PAGE_TOKEN_SEPARATOR = '|';
+    // Characters of the note body returned by list queries
+    public static final int PREVIEW_LENGTH = 200;
+    private static final String NOTE_PREVIEW = "CASE WHEN " + COLUMN_CODEC + " = " + NoteBodyCodec.CODEC_PLAIN +
+            " THEN substr(" + COLUMN_NOTE + ", 1, " + PREVIEW_LENGTH + ") ELSE " + COLUMN_PREVIEW + " END";
+    private static final String NOTE_IS_TRUNCATED = "(" + COLUMN_CODEC + " != " + NoteBodyCodec.CODEC_PLAIN +
+            " OR length(" + COLUMN_NOTE + ") > " + PREVIEW_LENGTH + ")";
+    // Listing order; matches the (user_id, day) index, which carries the row id as its last column
+    private static final String NEWEST_FIRST = COLUMN_DAY + " DESC, " + COLUMN_NOTE_ID + " DESC";
+    // Spelled out in every read so SQLite can use the partial indexes over live rows
+    private static final String IS_LIVE = COLUMN_DELETED_AT + " IS NULL";
+
+    // Write statements kept compiled in the statement cache
+    private static final String INSERT_NOTE = "INSERT INTO " + TABLE_NOTE_TABLE + " (" +
+            COLUMN_TITLE + ", " + COLUMN_NOTE + ", " + COLUMN_DATE + ", " + COLUMN_DAY + ", " + COLUMN_USER_REFERENCE + ", " +
+            COLUMN_CODEC + ", " + COLUMN_PREVIEW + ") VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_NOTE = "UPDATE " + TABLE_NOTE_TABLE + " SET " +
+            COLUMN_TITLE + "=?, " + COLUMN_NOTE + "=?, " + COLUMN_DATE + "=?, " + COLUMN_DAY + "=?, " +
+            COLUMN_CODEC + "=?, " + COLUMN_PREVIEW + "=? WHERE " + COLUMN_NOTE_ID + "=? AND " + IS_LIVE;
+    // Deletes only leave a tombstone; maintenance removes the row later
+    private static final String DELETE_NOTE = "UPDATE " + TABLE_NOTE_TABLE + " SET " + COLUMN_DELETED_AT + "=? " +
+            "WHERE " + COLUMN_NOTE_ID + "=? AND " + IS_LIVE;
+    private static final String RESTORE_NOTE = "UPDATE " + TABLE_NOTE_TABLE + " SET " + COLUMN_DELETED_AT + "=NULL " +
+            "WHERE " + COLUMN_NOTE_ID + "=? AND " + COLUMN_DELETED_AT + " IS NOT NULL";
+
+    // Notes read or written per step of an export or import
+    private static final int TRANSFER_BATCH_SIZE = 500;
+    // Content held before an import batch is written early, so a run of long notes stays bounded
+    private static final long TRANSFER_BATCH_CHARS = 4L * 1024 * 1024;
 
     /**
      * Constructor for creating a new instance of the SQLite database helper.
      *
-     * @param context The application context.
+     * @param context       The application context.
+     * @param databaseName  The database file name, or null for an in-memory database.
+     * @param currentUserId The user whose notes are read and written.
+     */
+    private Database(Context context, String databaseName, String currentUserId) {
+        super(context, databaseName, null, DATABASE_VERSION);
+        this.currentUserId = currentUserId;
+        this.context = context;
+        // Write-ahead logging lets SQLiteDatabase hand reads to its pool of secondary
+        // read-only connections, so queries no longer wait for an in-flight write
+        setWriteAheadLoggingEnabled(true);
+    }
+
+    /**
+     * Returns the database helper of the signed-in user. Every user has a database file of their
+     * own, so one user's data volume never slows another user's queries. The helper is kept open
+     * while the same user stays signed in, so callers must not close it; it is replaced when a
+     * different user signs in.
+     *
+     * @param context Any context; only its application context is retained.
+     * @return The database helper of the signed-in user.
+     * @throws IllegalStateException If no user is signed in.
+     */
+    public static synchronized Database getInstance(Context context) {
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        if (user == null) {
+            throw new IllegalStateException("No signed-in user to open the note database for");
+        }
+        String userId = user.getUid();
+
+        if (instance == null || !instance.currentUserId.equals(userId)) {
+            if (instance != null) {
+                // The previous user's file stays on disk for when they sign in again
+                instance.close();
+            }
+            instance = new Database(context.getApplicationContext(), databaseNameFor(userId), userId);
+        }
+        return instance;
+    }
+
+    /**
+     * Closes the helper of the signed-in user, if one is open. Called on sign-out so the file is
+     * not held open for a user who is no longer there.
+     */
+    public static synchronized void releaseInstance() {
+        if (instance != null) {
+            instance.close();
+            instance = null;
+        }
+    }
+
+    /**
+     * Returns the database file name of a user.
+     *
+     * @param userId The Firebase id of the user.
+     * @return The file name, with any character that is unsafe in a file name replaced.
      */
-    public Database(Context context) {
-        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    static String databaseNameFor(String userId) {
+        return DATABASE_NAME_PREFIX + userId.replaceAll("[^A-Za-z0-9_-]", "_") + ".db";
+    }
+
+    /**
+     * Creates a helper outside the shared instance, for a fixed user and without Firebase. Used
+     * by the JVM benchmarks; the app always goes through {@link #getInstance(Context)}.
+     *
+     * @param context       Any context; only its application context is retained.
+     * @param databaseName  The database file name, or null for an in-memory database.
+     * @param currentUserId The user whose notes are read and written.
+     * @return A new database helper, which the caller must close.
+     */
+    @VisibleForTesting
+    public static Database createForTesting(Context context, String databaseName, String currentUserId) {
+        return new Database(context.getApplicationContext(), databaseName, currentUserId);
+    }
+
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        applyAutoCheckpoint(db, checkpointPolicy);
+        DatabaseMaintenance.enableIncrementalVacuum(db);
+    }
+
+    /**
+     * Replaces the checkpoint policy. The automatic checkpoint threshold is applied to the open
+     * connection right away, or when the database is first opened.
+     *
+     * @param policy The new checkpoint policy.
+     */
+    public void setCheckpointPolicy(CheckpointPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("policy must not be null");
+        }
+        checkpointPolicy = policy;
+        try {
+            applyAutoCheckpoint(this.getWritableDatabase(), policy);
+        } catch (SQLException e) {
+            Log.e(TAG, "Error applying checkpoint policy: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs a WAL checkpoint using the mode of the current checkpoint policy.
+     *
+     * @return True if the checkpoint ran to completion, false if it was blocked or failed.
+     */
+    public boolean checkpoint() {
+        long start = CHECKPOINT_METRICS.start();
+        CheckpointPolicy.Mode mode = checkpointPolicy.getManualMode();
+        Cursor cursor = null;
+        boolean isSuccess = false;
+
+        try {
+            SQLiteDatabase databaseRef = this.getWritableDatabase();
+            // Result row: busy flag, frames in the log, frames checkpointed
+            cursor = databaseRef.rawQuery("PRAGMA wal_checkpoint(" + mode.name() + ")", null);
+            if (cursor != null && cursor.moveToFirst()) {
+                isSuccess = cursor.getInt(0) == 0;
+                Log.i(TAG, "Checkpoint " + mode + ": " + cursor.getInt(2) + "/" + cursor.getInt(1) + " frames");
+            }
+        } catch (SQLException e) {
+            Log.e(TAG, "Error running checkpoint: " + e.getMessage());
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+            CHECKPOINT_METRICS.stop(start, isSuccess);
+        }
+
+        return isSuccess;
+    }
+
+    /**
+     * Runs the periodic upkeep of the database file: a quick integrity check, refreshed query
+     * planner statistics and releasing the free pages left by deletes. Meant for idle time, as
+     * it competes with writes for the connection while it runs.
+     *
+     * @param budgetMillis The time the run may take before remaining steps are skipped.
+     * @param signal       Cancels the run, for instance when the system stops the job.
+     * @return The outcome of the run.
+     */
+    public MaintenanceReport runMaintenance(long budgetMillis, CancellationSignal signal) {
+        long start = MAINTENANCE_METRICS.start();
+        MaintenanceReport report = null;
+
+        try {
+            report = DatabaseMaintenance.run(this.getWritableDatabase(), budgetMillis, signal);
+            Log.i(TAG, "Maintenance finished: " + report);
+        } catch (SQLException e) {
+            Log.e(TAG, "Error running maintenance: " + e.getMessage());
+        } finally {
+            MAINTENANCE_METRICS.stop(start, report != null && report.isIntegrityOk());
+        }
+
+        return report != null ? report : new MaintenanceReport(false, 0, false, 0, 0, false, 0);
+    }
+
+    /**
+     * Chooses how note bodies are stored from now on. Rows already written keep their encoding
+     * and are still read transparently.
+     *
+     * @param codec The codec for new and updated bodies, such as {@link NoteBodyCodec#plain()}.
+     */
+    public void setBodyCodec(NoteBodyCodec codec) {
+        if (codec == null) {
+            throw new IllegalArgumentException("codec must not be null");
+        }
+        bodyCodec = codec;
+    }
+
+    /**
+     * Getter method for the note cache, mainly to read its hit, miss and eviction counters.
+     *
+     * @return The cache in front of this database.
+     */
+    public NoteCache getNoteCache() {
+        return noteCache;
+    }
+
+    /**
+     * Getter method for the change tracker, used to observe which notes each write changed.
+     *
+     * @return The change tracker of this database.
+     */
+    public NoteChangeTracker getChangeTracker() {
+        return changeTracker;
+    }
+
+    /**
+     * Returns the statement cache of the open database, replacing it if the database has been
+     * reopened since it was built.
+     */
+    private synchronized StatementCache getStatementCache() {
+        SQLiteDatabase databaseRef = this.getWritableDatabase();
+        if (statementCache == null || !statementCache.isFor(databaseRef)) {
+            if (statementCache != null) {
+                statementCache.close();
+            }
+            statementCache = new StatementCache(databaseRef);
+        }
+        return statementCache;
+    }
+
+    @Override
+    public synchronized void close() {
+        // Compiled statements must be released before their connection
+        if (statementCache != null) {
+            statementCache.close();
+            statementCache = null;
+        }
+        super.close();
+    }
+
+    private static void applyAutoCheckpoint(SQLiteDatabase db, CheckpointPolicy policy) {
+        // The pragma echoes the new value back, so it has to run as a query
+        DatabaseUtils.longForQuery(db, "PRAGMA wal_autocheckpoint=" + policy.getAutoCheckpointPages(), null);
     }
 
     @Override
@@ -55,35 +370,88 @@ public class Database extends SQLiteOpenHelper {
 
         // Execute the SQL statement
         db.execSQL(createNoteTableStatement);
+
+        // Bring the base schema up to date through the same steps an upgrade would take
+        MigrationRunner.forNoteDatabase().migrate(db, BASE_VERSION, DATABASE_VERSION);
     }
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        // This method is called if the database version is changed.
-        // Handle database schema upgrades here.
+        // Apply every migration between the installed and the current schema version
+        MigrationRunner.forNoteDatabase().migrate(db, oldVersion, newVersion);
+    }
+
+    @Override
+    public void onOpen(SQLiteDatabase db) {
+        super.onOpen(db);
+        String databaseName = getDatabaseName();
+        if (databaseName != null && !LegacyNoteSplitter.LEGACY_DATABASE_NAME.equals(databaseName)) {
+            moveLegacyNotes(db);
+        }
+    }
+
+    /**
+     * Moves the current user's notes out of the database all users used to share, if it still
+     * exists, and deletes that database once no user's notes are left in it.
+     */
+    private void moveLegacyNotes(SQLiteDatabase db) {
+        if (!context.getDatabasePath(LegacyNoteSplitter.LEGACY_DATABASE_NAME).exists()) {
+            return;
+        }
+
+        // Opening it through a helper brings an old shared file up to the current schema first
+        Database legacy = new Database(context, LegacyNoteSplitter.LEGACY_DATABASE_NAME, currentUserId);
+        boolean isLegacyEmpty = false;
+        try {
+            isLegacyEmpty = LegacyNoteSplitter.moveUserNotes(legacy.getWritableDatabase(), db, currentUserId);
+        } catch (SQLException e) {
+            // Whatever was not moved is picked up the next time the database opens
+            Log.e(TAG, "Error moving notes out of the shared database: " + e.getMessage());
+        } finally {
+            legacy.close();
+        }
+
+        if (isLegacyEmpty) {
+            context.deleteDatabase(LegacyNoteSplitter.LEGACY_DATABASE_NAME);
+        }
     }
 
 
+    /**
+     * Retrieves every note of the current user, newest first. The list is served from the cache
+     * until the next write.
+     *
+     * @return An unmodifiable list of the user's notes.
+     */
     public List<NoteEntity> getAllNotesForUser() {
+        long start = READ_ALL_METRICS.start();
+        List<NoteEntity> cached = noteCache.getUserList(currentUserId);
+        if (cached != null) {
+            READ_ALL_METRICS.stop(start, true);
+            return cached;
+        }
+        long cacheVersion = noteCache.getVersion();
+
         List<NoteEntity> notesList = new ArrayList<>();
         String[] projection = {
                 COLUMN_NOTE_ID,
                 COLUMN_TITLE,
                 COLUMN_NOTE,
-                COLUMN_DATE
+                COLUMN_DATE,
+                COLUMN_CODEC
         };
 
-        String selection = COLUMN_USER_REFERENCE + "=?";
-        String[] selectionArgs = {CURRENT_USER_ID};
+        String selection = COLUMN_USER_REFERENCE + "=? AND " + IS_LIVE;
+        String[] selectionArgs = {currentUserId};
 
-        SQLiteDatabase databaseRef = null;
         Cursor cursor = null;
+        boolean isLoaded = false;
 
         try {
             // Get a readable database reference
-            databaseRef = this.getReadableDatabase();
+            SQLiteDatabase databaseRef = this.getReadableDatabase();
             // Query the database for notes associated with the user
-            cursor = databaseRef.query(TABLE_NOTE_TABLE, projection, selection, selectionArgs, null, null, null);
+            cursor = databaseRef.query(TABLE_NOTE_TABLE, projection, selection, selectionArgs, null, null, NEWEST_FIRST);
 
             if (cursor != null && cursor.moveToFirst()) {
                 // Extract note data from the cursor and add to the list
@@ -91,72 +459,401 @@ public class Database extends SQLiteOpenHelper {
                 int titleIndex = cursor.getColumnIndexOrThrow(COLUMN_TITLE);
                 int messageIndex = cursor.getColumnIndexOrThrow(COLUMN_NOTE);
                 int dateIndex = cursor.getColumnIndexOrThrow(COLUMN_DATE);
+                int codecIndex = cursor.getColumnIndexOrThrow(COLUMN_CODEC);
 
                 do {
                     long id = cursor.getLong(idIndex);
                     String title = cursor.getString(titleIndex);
-                    String message = cursor.getString(messageIndex);
+                    String message = NoteBodyCodec.readBody(cursor, messageIndex, codecIndex);
                     String date = cursor.getString(dateIndex);
 
                     NoteEntity note = new NoteEntity(id, title, message, date);
                     notesList.add(note);
                 } while (cursor.moveToNext());
             }
+            isLoaded = true;
         } catch (SQLException e) {
             // Log any errors that occur during database operation
             Log.e(TAG, "Error retrieving notes for user: " + e.getMessage());
         } finally {
-            // Close cursor and database connection
+            // Close the cursor; the shared connection stays open
             if (cursor != null) {
                 cursor.close();
             }
-            if (databaseRef != null && databaseRef.isOpen()) {
-                databaseRef.close();
+        }
+
+        if (isLoaded) {
+            noteCache.putUserList(currentUserId, notesList, cacheVersion);
+        }
+        READ_ALL_METRICS.stop(start, isLoaded);
+        return Collections.unmodifiableList(notesList);
+    }
+
+    /**
+     * Retrieves one page of the current user's notes, newest first. Pages are addressed by the
+     * (day, id) of the last row already seen rather than by an offset, so every page is an index
+     * range scan no matter how deep the user has scrolled. The notes of the returned page are
+     * decoded from the query cursor on access, so the page must be closed once it is consumed.
+     * <p>
+     * Only the first {@link #PREVIEW_LENGTH} characters of each note body are returned; notes cut
+     * short report {@link NoteEntity#isPreview()} and can be read in full with {@link #getNoteById}.
+     *
+     * @param pageToken The token returned with the previous page, or null for the first page.
+     * @param pageSize  The maximum number of notes to return.
+     * @return The requested page.
+     */
+    public NotePage getNotePage(String pageToken, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive");
+        }
+
+        long start = READ_PAGE_METRICS.start();
+        boolean isSuccess = false;
+        String nextPageToken = null;
+
+        StringBuilder sql = new StringBuilder()
+                .append("SELECT ").append(COLUMN_NOTE_ID).append(", ").append(COLUMN_TITLE).append(", ")
+                .append(NOTE_PREVIEW).append(", ").append(COLUMN_DATE).append(", ").append(NOTE_IS_TRUNCATED).append(", ")
+                .append(COLUMN_DAY)
+                .append(" FROM ").append(TABLE_NOTE_TABLE)
+                .append(" WHERE ").append(COLUMN_USER_REFERENCE).append("=? AND ").append(IS_LIVE);
+        List<String> args = new ArrayList<>();
+        args.add(currentUserId);
+
+        if (pageToken != null) {
+            // Continue strictly after the last (day, id) of the previous page
+            int separator = pageToken.lastIndexOf(PAGE_TOKEN_SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Malformed page token: " + pageToken);
+            }
+            sql.append(" AND (").append(COLUMN_DAY).append(", ").append(COLUMN_NOTE_ID).append(") < (?, ?)");
+            args.add(pageToken.substring(0, separator));
+            args.add(pageToken.substring(separator + 1));
+        }
+
+        // Fetch one extra row to learn whether another page follows
+        sql.append(" ORDER BY ").append(NEWEST_FIRST).append(" LIMIT ").append(pageSize + 1);
+
+        Cursor cursor = null;
+
+        try {
+            SQLiteDatabase databaseRef = this.getReadableDatabase();
+            cursor = databaseRef.rawQuery(sql.toString(), args.toArray(new String[0]));
+
+            // Counting fills the cursor window here, on the calling thread, rather than on
+            // whichever thread first reads a row
+            int rowCount = Math.min(cursor.getCount(), pageSize);
+            if (cursor.getCount() > pageSize && cursor.moveToPosition(pageSize - 1)) {
+                nextPageToken = cursor.getLong(5) + String.valueOf(PAGE_TOKEN_SEPARATOR) + cursor.getLong(0);
             }
+
+            // Rows are decoded lazily; the list now owns the cursor
+            NotePage page = new NotePage(new NoteCursorList(cursor, rowCount), nextPageToken);
+            cursor = null;
+            isSuccess = true;
+            return page;
+        } catch (SQLException e) {
+            Log.e(TAG, "Error retrieving note page: " + e.getMessage());
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+            READ_PAGE_METRICS.stop(start, isSuccess);
+        }
+
+        return new NotePage(new ArrayList<>(), null);
+    }
+
+    /**
+     * Retrieves a single note of the current user with its full content, from the cache when
+     * possible.
+     *
+     * @param noteId The ID of the note.
+     * @return The note, or null if it does not exist.
+     */
+    public NoteEntity getNoteById(long noteId) {
+        long start = READ_BY_ID_METRICS.start();
+        NoteEntity cached = noteCache.getNote(noteId);
+        if (cached != null) {
+            READ_BY_ID_METRICS.stop(start, true);
+            return cached;
+        }
+        // Taken before the query so a note read before a concurrent write is not cached after it
+        long cacheVersion = noteCache.getVersion();
+
+        List<NoteEntity> notes = queryNotes(COLUMN_NOTE_ID + "=? AND " + COLUMN_USER_REFERENCE + "=? AND " + IS_LIVE,
+                new String[]{String.valueOf(noteId), currentUserId}, null, READ_BY_ID_METRICS, start);
+        if (notes.isEmpty()) {
+            return null;
+        }
+        noteCache.putNote(notes.get(0), cacheVersion);
+        return notes.get(0);
+    }
+
+    /**
+     * Retrieves list previews of specific notes of the current user, in listing order. Used to
+     * refresh only the rows reported by a change event.
+     *
+     * @param noteIds The IDs of the notes.
+     * @return Previews of the notes that still exist, newest first.
+     */
+    public List<NoteEntity> getNotePreviewsByIds(Collection<Long> noteIds) {
+        long start = READ_PREVIEWS_METRICS.start();
+        boolean isSuccess = false;
+        List<NoteEntity> notesList = new ArrayList<>();
+        if (noteIds.isEmpty()) {
+            READ_PREVIEWS_METRICS.stop(start, true);
+            return notesList;
+        }
+
+        StringBuilder ids = new StringBuilder();
+        for (long noteId : noteIds) {
+            ids.append(ids.length() == 0 ? "" : ",").append(noteId);
+        }
+        Cursor cursor = null;
+
+        try {
+            SQLiteDatabase databaseRef = this.getReadableDatabase();
+            cursor = databaseRef.rawQuery("SELECT " + COLUMN_NOTE_ID + ", " + COLUMN_TITLE + ", " + NOTE_PREVIEW + ", " +
+                    COLUMN_DATE + ", " + NOTE_IS_TRUNCATED + " FROM " + TABLE_NOTE_TABLE +
+                    " WHERE " + COLUMN_USER_REFERENCE + "=? AND " + IS_LIVE + " AND " + COLUMN_NOTE_ID + " IN (" + ids + ")" +
+                    " ORDER BY " + NEWEST_FIRST, new String[]{currentUserId});
+            while (cursor.moveToNext()) {
+                notesList.add(new NoteEntity(cursor.getLong(0), cursor.getString(1), cursor.getString(2), cursor.getString(3), cursor.getInt(4) != 0));
+            }
+            isSuccess = true;
+        } catch (SQLException e) {
+            Log.e(TAG, "Error retrieving note previews: " + e.getMessage());
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+            READ_PREVIEWS_METRICS.stop(start, isSuccess);
+        }
+
+        return notesList;
+    }
+
+    /**
+     * Retrieves the current user's notes dated within a range, newest first. The range is
+     * evaluated by SQLite against the (user_id, day) index.
+     *
+     * @param fromEpochDay The first day of the range, inclusive, as days since 1970-01-01.
+     * @param toEpochDay   The last day of the range, inclusive, as days since 1970-01-01.
+     * @return The notes dated within the range.
+     */
+    public List<NoteEntity> getNotesBetween(long fromEpochDay, long toEpochDay) {
+        return queryNotes(COLUMN_USER_REFERENCE + "=? AND " + IS_LIVE + " AND " + COLUMN_DAY + " BETWEEN ? AND ?",
+                new String[]{currentUserId, String.valueOf(fromEpochDay), String.valueOf(toEpochDay)}, null,
+                READ_BETWEEN_METRICS, READ_BETWEEN_METRICS.start());
+    }
+
+    /**
+     * Retrieves the current user's most recent notes by note date.
+     *
+     * @param limit The maximum number of notes to return.
+     * @return Up to {@code limit} notes, newest first.
+     */
+    public List<NoteEntity> getMostRecentNotes(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return queryNotes(COLUMN_USER_REFERENCE + "=? AND " + IS_LIVE, new String[]{currentUserId}, String.valueOf(limit),
+                READ_RECENT_METRICS, READ_RECENT_METRICS.start());
+    }
+
+    /**
+     * Runs a full-content note query and records its outcome under the calling operation.
+     */
+    private List<NoteEntity> queryNotes(String selection, String[] selectionArgs, String limit,
+                                        OperationMetrics metrics, long start) {
+        boolean isSuccess = false;
+        List<NoteEntity> notesList = new ArrayList<>();
+        String[] projection = {COLUMN_NOTE_ID, COLUMN_TITLE, COLUMN_NOTE, COLUMN_DATE, COLUMN_CODEC};
+        Cursor cursor = null;
+
+        try {
+            SQLiteDatabase databaseRef = this.getReadableDatabase();
+            cursor = databaseRef.query(TABLE_NOTE_TABLE, projection, selection, selectionArgs, null, null, NEWEST_FIRST, limit);
+            while (cursor.moveToNext()) {
+                notesList.add(new NoteEntity(cursor.getLong(0), cursor.getString(1), NoteBodyCodec.readBody(cursor, 2, 4), cursor.getString(3)));
+            }
+            isSuccess = true;
+        } catch (SQLException e) {
+            Log.e(TAG, "Error retrieving notes: " + e.getMessage());
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+            metrics.stop(start, isSuccess);
         }
 
         return notesList;
     }
 
+    /**
+     * Searches the current user's notes by title and content. Every word of the query is matched
+     * as a prefix, hits are ranked by relevance and snippets are built only for the returned rows.
+     * Compressed notes are matched on their title and preview only.
+     *
+     * @param query The words to search for.
+     * @param limit The maximum number of results.
+     * @return The best matching notes, most relevant first.
+     */
+    public List<SearchResult> searchNotes(String query, int limit) {
+        long start = SEARCH_METRICS.start();
+        boolean isSuccess = false;
+        List<SearchResult> results = new ArrayList<>();
+        String matchExpression = toMatchExpression(query);
+        if (matchExpression.isEmpty() || limit <= 0) {
+            SEARCH_METRICS.stop(start, true);
+            return results;
+        }
+
+        // Keep only the best hits while scanning; the head is the weakest one kept so far
+        PriorityQueue<SearchResult> best = new PriorityQueue<>(limit + 1,
+                (a, b) -> Double.compare(a.getScore(), b.getScore()));
+        Cursor cursor = null;
+
+        try {
+            SQLiteDatabase databaseRef = this.getReadableDatabase();
+
+            // First pass: rank every hit from matchinfo alone, which never touches the note text
+            for (String table : SEARCH_TABLES) {
+                cursor = databaseRef.rawQuery("SELECT " + table + ".docid, matchinfo(" + table + ", 'pcnx')" +
+                        " FROM " + table + " JOIN " + TABLE_NOTE_TABLE + " n ON n." + COLUMN_NOTE_ID + " = " + table + ".docid" +
+                        " WHERE " + table + " MATCH ? AND n." + COLUMN_USER_REFERENCE + " = ? AND n." + IS_LIVE,
+                        new String[]{matchExpression, currentUserId});
+                while (cursor.moveToNext()) {
+                    best.add(new SearchResult(cursor.getLong(0), null, null, SEARCH_RANKER.score(cursor.getBlob(1))));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+                cursor.close();
+                cursor = null;
+            }
+
+            if (best.isEmpty()) {
+                isSuccess = true;
+                return results;
+            }
+
+            // Second pass: build snippets for the rows that made the cut
+            LongSparseArray<Double> scores = new LongSparseArray<>(best.size());
+            StringBuilder ids = new StringBuilder();
+            for (SearchResult hit : best) {
+                scores.put(hit.getId(), hit.getScore());
+                ids.append(ids.length() == 0 ? "" : ",").append(hit.getId());
+            }
+
+            // A row lives in exactly one of the indexes, so each id is found once
+            for (String table : SEARCH_TABLES) {
+                cursor = databaseRef.rawQuery("SELECT docid, " + COLUMN_TITLE + ", snippet(" + table + ", '[', ']', '...', -1, 16)" +
+                        " FROM " + table + " WHERE " + table + " MATCH ? AND docid IN (" + ids + ")",
+                        new String[]{matchExpression});
+                while (cursor.moveToNext()) {
+                    long id = cursor.getLong(0);
+                    results.add(new SearchResult(id, cursor.getString(1), cursor.getString(2), scores.get(id)));
+                }
+                cursor.close();
+                cursor = null;
+            }
+
+            Collections.sort(results, (a, b) -> Double.compare(b.getScore(), a.getScore()));
+            isSuccess = true;
+        } catch (SQLException e) {
+            Log.e(TAG, "Error searching notes: " + e.getMessage());
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+            SEARCH_METRICS.stop(start, isSuccess);
+        }
+
+        return results;
+    }
+
+    /**
+     * Turns free text into an FTS MATCH expression that requires every word as a prefix. Words
+     * are quoted so that FTS keywords typed by the user are treated as plain text.
+     */
+    private static String toMatchExpression(String query) {
+        StringBuilder expression = new StringBuilder();
+        if (query == null) {
+            return "";
+        }
+        // FTS4 has no escape for quotes inside a phrase, so they are dropped with the operators
+        for (String word : query.replaceAll("[\"*]", " ").trim().split("\\s+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (expression.length() > 0) {
+                expression.append(' ');
+            }
+            expression.append('"').append(word).append("*\"");
+        }
+        return expression.toString();
+    }
+
+    private static void bindBody(SQLiteStatement statement, int noteIndex, int codecIndex, int previewIndex,
+                                 NoteBodyCodec.EncodedBody body) {
+        if (body.codec == NoteBodyCodec.CODEC_PLAIN) {
+            statement.bindString(noteIndex, body.text);
+            statement.bindNull(previewIndex);
+        } else {
+            statement.bindBlob(noteIndex, body.blob);
+            statement.bindString(previewIndex, body.preview);
+        }
+        statement.bindLong(codecIndex, body.codec);
+    }
+
     /**
      * Inserts a new note into the database.
      *
      * @param title   The title of the note.
      * @param note    The content of the note.
      * @param date    The date of the note.
-     * @return True if the insertion was successful, false otherwise.
+     * @return The stored note, including its new ID, or null if the insertion failed.
      */
-    public boolean insertNoteData(String title, String note, String date) {
-        SQLiteDatabase databaseRef = null;
-        boolean isSuccess = false;
+    public NoteEntity insertNoteData(String title, String note, String date) {
+        long start = INSERT_METRICS.start();
+        NoteEntity inserted = null;
 
         try {
-            // Get a writable database reference
-            databaseRef = this.getWritableDatabase();
-
-            // Create a new map of values, where column names are the keys
-            ContentValues values = new ContentValues();
-            values.put(COLUMN_TITLE, title);
-            values.put(COLUMN_NOTE, note);
-            values.put(COLUMN_DATE, date);
-            values.put(COLUMN_USER_REFERENCE, CURRENT_USER_ID);
+            // Encode outside the lock; compression is the slow part of a write
+            NoteBodyCodec.EncodedBody body = bodyCodec.encode(note);
+            long epochDay = NoteDates.toEpochDay(date);
+            StatementCache statements = getStatementCache();
+            long newRowId;
 
-            // Insert the new row, returning the primary key value of the new row
-            long newRowId = databaseRef.insert(TABLE_NOTE_TABLE, null, values);
+            // Bind straight into the compiled insert, returning the primary key value of the new row
+            synchronized (statements) {
+                SQLiteStatement statement = statements.get(INSERT_NOTE);
+                statement.bindString(1, title);
+                bindBody(statement, 2, 6, 7, body);
+                statement.bindString(3, date);
+                statement.bindLong(4, epochDay);
+                statement.bindString(5, currentUserId);
+                newRowId = statement.executeInsert();
+            }
 
             // Check if insertion was successful
-            isSuccess = newRowId != -1;
-        } catch (SQLException error) {
-            // Handle any database errors and log them
+            if (newRowId != -1) {
+                inserted = new NoteEntity(newRowId, title, note, date);
+                noteCache.onNoteWritten(inserted);
+                NoteChangeEvent event = new NoteChangeEvent();
+                event.addInserted(newRowId);
+                changeTracker.onCommitted(event);
+            }
+        } catch (SQLException | IllegalArgumentException error) {
+            // Handle any database errors, or a date that cannot be parsed, and log them
             Log.e(TAG, error.getMessage());
         } finally {
-            // Close the database connection
-            if (databaseRef != null && databaseRef.isOpen()) {
-                databaseRef.close();
-            }
+            INSERT_METRICS.stop(start, inserted != null);
         }
 
-        return isSuccess;
+        return inserted;
     }
 
     /**
@@ -166,77 +863,398 @@ public class Database extends SQLiteOpenHelper {
      * @param title   The new title for the note.
      * @param note    The new content for the note.
      * @param date    The new date for the note.
-     * @return True if the update was successful, false otherwise.
+     * @return The note as it is now stored, or null if the update failed.
      */
-    public boolean updateNoteData(long noteId, String title, String note, String date) {
-        SQLiteDatabase databaseRef = null;
-        boolean isSuccess = false;
+    public NoteEntity updateNoteData(long noteId, String title, String note, String date) {
+        long start = UPDATE_METRICS.start();
+        NoteEntity updated = null;
 
         try {
-            // Get a writable database reference
-            databaseRef = this.getWritableDatabase();
-
-            // Create a ContentValues object to hold the values to be updated
-            ContentValues values = new ContentValues();
-            values.put(COLUMN_TITLE, title);
-            values.put(COLUMN_NOTE, note);
-            values.put(COLUMN_DATE, date);
-
-            // Define the WHERE clause
-            String selection = COLUMN_NOTE_ID + "=?";
-            String[] selectionArgs = {String.valueOf(noteId)};
+            NoteBodyCodec.EncodedBody body = bodyCodec.encode(note);
+            long epochDay = NoteDates.toEpochDay(date);
+            StatementCache statements = getStatementCache();
+            int rowsAffected;
 
-            // Update the record
-            int rowsAffected = databaseRef.update(TABLE_NOTE_TABLE, values, selection, selectionArgs);
+            // Update the record through the compiled statement
+            synchronized (statements) {
+                SQLiteStatement statement = statements.get(UPDATE_NOTE);
+                statement.bindString(1, title);
+                bindBody(statement, 2, 5, 6, body);
+                statement.bindString(3, date);
+                statement.bindLong(4, epochDay);
+                statement.bindLong(7, noteId);
+                rowsAffected = statement.executeUpdateDelete();
+            }
 
             // Check if the update was successful
-            isSuccess = rowsAffected > 0;
-        } catch (SQLException e) {
-            // Log any errors that occur during database operation
+            if (rowsAffected > 0) {
+                updated = new NoteEntity(noteId, title, note, date);
+                noteCache.onNoteWritten(updated);
+                NoteChangeEvent event = new NoteChangeEvent();
+                event.addUpdated(noteId);
+                changeTracker.onCommitted(event);
+            }
+        } catch (SQLException | IllegalArgumentException e) {
+            // Log any errors that occur during database operation, or a date that cannot be parsed
             Log.e(TAG, "Error updating note data: " + e.getMessage());
         } finally {
-            // Close the database connection
-            if (databaseRef != null && databaseRef.isOpen()) {
-                databaseRef.close();
-            }
+            UPDATE_METRICS.stop(start, updated != null);
         }
 
-        return isSuccess;
+        return updated;
     }
 
     /**
-     * Deletes a note from the database by its ID.
+     * Deletes a note from the database by its ID. The row is only flagged with a tombstone, which
+     * hides it from every read and can be undone with {@link #restoreNoteById} until maintenance
+     * purges it.
      *
      * @param noteId  The ID of the note to be deleted.
      * @return True if the deletion was successful, false otherwise.
      */
     public boolean deleteNoteById(long noteId) {
-        SQLiteDatabase databaseRef = null;
+        long start = DELETE_METRICS.start();
         boolean isSuccess = false;
 
         try {
-            // Get a writable database reference
-            databaseRef = this.getWritableDatabase();
-
-            // Define the WHERE clause
-            String selection = COLUMN_NOTE_ID + "=?";
-            String[] selectionArgs = {String.valueOf(noteId)};
+            StatementCache statements = getStatementCache();
+            int rowsDeleted;
 
-            // Delete the record
-            int rowsDeleted = databaseRef.delete(TABLE_NOTE_TABLE, selection, selectionArgs);
+            // Flag the record through the compiled statement
+            synchronized (statements) {
+                SQLiteStatement statement = statements.get(DELETE_NOTE);
+                statement.bindLong(1, System.currentTimeMillis());
+                statement.bindLong(2, noteId);
+                rowsDeleted = statement.executeUpdateDelete();
+            }
 
             // Check if the deletion was successful
             isSuccess = rowsDeleted > 0;
+            if (isSuccess) {
+                noteCache.onNoteDeleted(noteId);
+                NoteChangeEvent event = new NoteChangeEvent();
+                event.addDeleted(noteId);
+                changeTracker.onCommitted(event);
+            }
         } catch (SQLException e) {
             // Log any errors that occur during database operation
             Log.e(TAG, "Error deleting note by ID: " + e.getMessage());
         } finally {
-            // Close the database connection
-            if (databaseRef != null && databaseRef.isOpen()) {
-                databaseRef.close();
-            }
+            DELETE_METRICS.stop(start, isSuccess);
         }
 
         return isSuccess;
     }
-}
\ No newline at end of file
+
+    /**
+     * Brings back a note deleted with {@link #deleteNoteById} whose tombstone has not been purged yet.
+     *
+     * @param noteId The ID of the deleted note.
+     * @return The restored note, or null if there was no tombstone to restore.
+     */
+    public NoteEntity restoreNoteById(long noteId) {
+        long start = RESTORE_METRICS.start();
+        NoteEntity restored = null;
+
+        try {
+            StatementCache statements = getStatementCache();
+            int rowsRestored;
+
+            // Clear the tombstone through the compiled statement
+            synchronized (statements) {
+                SQLiteStatement statement = statements.get(RESTORE_NOTE);
+                statement.bindLong(1, noteId);
+                rowsRestored = statement.executeUpdateDelete();
+            }
+
+            // Read the note back so the cache and listeners see it again
+            if (rowsRestored > 0) {
+                restored = getNoteById(noteId);
+                NoteChangeEvent event = new NoteChangeEvent();
+                event.addInserted(noteId);
+                changeTracker.onCommitted(event);
+            }
+        } catch (SQLException e) {
+            // Log any errors that occur during database operation
+            Log.e(TAG, "Error restoring note by ID: " + e.getMessage());
+        } finally {
+            RESTORE_METRICS.stop(start, restored != null);
+        }
+
+        return restored;
+    }
+
+    /**
+     * Inserts a batch of notes in a single transaction. The id of each given note is ignored.
+     *
+     * @param notes The notes to insert.
+     * @return The per-item result, holding the new row id of every inserted note.
+     */
+    public BatchResult insertNotesData(List<NoteEntity> notes) {
+        long start = INSERT_BATCH_METRICS.start();
+        BatchResult result = new BatchResult(notes.size());
+        SQLiteDatabase databaseRef = this.getWritableDatabase();
+        StatementCache statements = getStatementCache();
+        NoteBodyCodec codec = bodyCodec;
+
+        // The statement lock is always taken before the transaction begins
+        synchronized (statements) {
+            databaseRef.beginTransaction();
+            try {
+                // Rebind the one compiled insert for every row
+                SQLiteStatement statement = statements.get(INSERT_NOTE);
+
+                for (int i = 0; i < notes.size(); i++) {
+                    NoteEntity note = notes.get(i);
+                    try {
+                        statement.clearBindings();
+                        statement.bindString(1, note.getTitle());
+                        bindBody(statement, 2, 6, 7, codec.encode(note.getNote()));
+                        statement.bindString(3, note.getDate());
+                        statement.bindLong(4, NoteDates.toEpochDay(note.getDate()));
+                        statement.bindString(5, currentUserId);
+                        long newRowId = statement.executeInsert();
+                        if (newRowId != -1) {
+                            result.setSuccess(i, newRowId);
+                        }
+                    } catch (SQLException | IllegalArgumentException e) {
+                        // A bad row only fails itself; the rest of the batch still commits
+                        Log.e(TAG, "Error inserting note " + i + " of batch: " + e.getMessage());
+                    }
+                }
+
+                databaseRef.setTransactionSuccessful();
+            } finally {
+                databaseRef.endTransaction();
+            }
+        }
+
+        // Only committed rows reach the cache and the observers
+        NoteChangeEvent event = new NoteChangeEvent();
+        for (int i = 0; i < notes.size(); i++) {
+            if (result.isSuccessful(i)) {
+                NoteEntity note = notes.get(i);
+                noteCache.onNoteWritten(new NoteEntity(result.getId(i), note.getTitle(), note.getNote(), note.getDate()));
+                event.addInserted(result.getId(i));
+            }
+        }
+        changeTracker.onCommitted(event);
+        // A batch with any failed item counts as an error
+        INSERT_BATCH_METRICS.stop(start, result.isAllSuccessful());
+        return result;
+    }
+
+    /**
+     * Updates a batch of notes, matched by id, in a single transaction.
+     *
+     * @param notes The notes holding the id to update and the new title, content and date.
+     * @return The per-item result, holding the id of every note that was updated.
+     */
+    public BatchResult updateNotesData(List<NoteEntity> notes) {
+        long start = UPDATE_BATCH_METRICS.start();
+        BatchResult result = new BatchResult(notes.size());
+        SQLiteDatabase databaseRef = this.getWritableDatabase();
+        StatementCache statements = getStatementCache();
+        NoteBodyCodec codec = bodyCodec;
+
+        synchronized (statements) {
+            databaseRef.beginTransaction();
+            try {
+                SQLiteStatement statement = statements.get(UPDATE_NOTE);
+
+                for (int i = 0; i < notes.size(); i++) {
+                    NoteEntity note = notes.get(i);
+                    try {
+                        statement.clearBindings();
+                        statement.bindString(1, note.getTitle());
+                        bindBody(statement, 2, 5, 6, codec.encode(note.getNote()));
+                        statement.bindString(3, note.getDate());
+                        statement.bindLong(4, NoteDates.toEpochDay(note.getDate()));
+                        statement.bindLong(7, note.getId());
+                        if (statement.executeUpdateDelete() > 0) {
+                            result.setSuccess(i, note.getId());
+                        }
+                    } catch (SQLException | IllegalArgumentException e) {
+                        Log.e(TAG, "Error updating note " + note.getId() + " in batch: " + e.getMessage());
+                    }
+                }
+
+                databaseRef.setTransactionSuccessful();
+            } finally {
+                databaseRef.endTransaction();
+            }
+        }
+
+        NoteChangeEvent event = new NoteChangeEvent();
+        for (int i = 0; i < notes.size(); i++) {
+            if (result.isSuccessful(i)) {
+                NoteEntity note = notes.get(i);
+                noteCache.onNoteWritten(new NoteEntity(note.getId(), note.getTitle(), note.getNote(), note.getDate()));
+                event.addUpdated(note.getId());
+            }
+        }
+        changeTracker.onCommitted(event);
+        // A batch with any failed item counts as an error
+        UPDATE_BATCH_METRICS.stop(start, result.isAllSuccessful());
+        return result;
+    }
+
+    /**
+     * Deletes a batch of notes by id in a single transaction, leaving tombstones like
+     * {@link #deleteNoteById}.
+     *
+     * @param noteIds The ids of the notes to delete.
+     * @return The per-item result, holding the id of every note that was deleted.
+     */
+    public BatchResult deleteNotesById(List<Long> noteIds) {
+        long start = DELETE_BATCH_METRICS.start();
+        BatchResult result = new BatchResult(noteIds.size());
+        SQLiteDatabase databaseRef = this.getWritableDatabase();
+        StatementCache statements = getStatementCache();
+
+        synchronized (statements) {
+            databaseRef.beginTransaction();
+            try {
+                SQLiteStatement statement = statements.get(DELETE_NOTE);
+                long deletedAt = System.currentTimeMillis();
+
+                for (int i = 0; i < noteIds.size(); i++) {
+                    long noteId = noteIds.get(i);
+                    try {
+                        statement.bindLong(1, deletedAt);
+                        statement.bindLong(2, noteId);
+                        if (statement.executeUpdateDelete() > 0) {
+                            result.setSuccess(i, noteId);
+                        }
+                    } catch (SQLException e) {
+                        Log.e(TAG, "Error deleting note " + noteId + " in batch: " + e.getMessage());
+                    }
+                }
+
+                databaseRef.setTransactionSuccessful();
+            } finally {
+                databaseRef.endTransaction();
+            }
+        }
+
+        NoteChangeEvent event = new NoteChangeEvent();
+        for (int i = 0; i < noteIds.size(); i++) {
+            if (result.isSuccessful(i)) {
+                noteCache.onNoteDeleted(result.getId(i));
+                event.addDeleted(result.getId(i));
+            }
+        }
+        changeTracker.onCommitted(event);
+        // A batch with any failed item counts as an error
+        DELETE_BATCH_METRICS.stop(start, result.isAllSuccessful());
+        return result;
+    }
+
+    /**
+     * Writes every note of the current user to a stream as JSON Lines, oldest first. Notes are
+     * read in pages by id, so neither the table nor the file is ever held in memory, and notes
+     * written during the export may or may not be included.
+     *
+     * @param out      The stream to write; it is flushed but not closed.
+     * @param listener The listener told about progress after each page, or null.
+     * @return The number of notes and bytes written.
+     * @throws IOException If the stream cannot be written.
+     */
+    public TransferResult exportNotes(OutputStream out, NoteTransferListener listener) throws IOException {
+        long start = EXPORT_METRICS.start();
+        boolean isSuccess = false;
+        NoteJsonLinesWriter writer = new NoteJsonLinesWriter(out);
+        String[] projection = {COLUMN_NOTE_ID, COLUMN_TITLE, COLUMN_NOTE, COLUMN_DATE, COLUMN_CODEC};
+        // Seek past the last exported id instead of using OFFSET, so every page costs the same
+        String selection = COLUMN_USER_REFERENCE + "=? AND " + IS_LIVE + " AND " + COLUMN_NOTE_ID + ">?";
+        String limit = String.valueOf(TRANSFER_BATCH_SIZE);
+        long exportedCount = 0;
+        long lastId = 0;
+
+        try {
+            SQLiteDatabase databaseRef = this.getReadableDatabase();
+            int rowCount;
+            do {
+                rowCount = 0;
+                Cursor cursor = databaseRef.query(TABLE_NOTE_TABLE, projection, selection,
+                        new String[]{currentUserId, String.valueOf(lastId)}, null, null, COLUMN_NOTE_ID, limit);
+                try {
+                    while (cursor.moveToNext()) {
+                        lastId = cursor.getLong(0);
+                        writer.write(cursor.getString(1), NoteBodyCodec.readBody(cursor, 2, 4), cursor.getString(3));
+                        rowCount++;
+                    }
+                } finally {
+                    cursor.close();
+                }
+
+                exportedCount += rowCount;
+                if (listener != null && rowCount > 0) {
+                    listener.onProgress(exportedCount, writer.getByteCount());
+                }
+            } while (rowCount == TRANSFER_BATCH_SIZE);
+
+            writer.flush();
+            isSuccess = true;
+            return new TransferResult(exportedCount, 0, writer.getByteCount());
+        } finally {
+            EXPORT_METRICS.stop(start, isSuccess);
+        }
+    }
+
+    /**
+     * Adds the notes of a JSON Lines stream to the current user, such as one written by
+     * {@link #exportNotes}. Notes are read one at a time and stored through
+     * {@link #insertNotesData} in batches, each in its own transaction, so batches committed
+     * before a failure are kept. Malformed lines and notes that cannot be stored are counted and
+     * skipped.
+     *
+     * @param in       The stream to read; it is not closed.
+     * @param listener The listener told about progress after each batch, or null.
+     * @return The number of notes imported and failed, and the bytes read.
+     * @throws IOException If the stream cannot be read.
+     */
+    public TransferResult importNotes(InputStream in, NoteTransferListener listener) throws IOException {
+        long start = IMPORT_METRICS.start();
+        boolean isSuccess = false;
+        NoteJsonLinesReader reader = new NoteJsonLinesReader(in);
+        List<NoteEntity> batch = new ArrayList<>(TRANSFER_BATCH_SIZE);
+        long batchChars = 0;
+        long importedCount = 0;
+        long failedCount = 0;
+
+        try {
+            NoteEntity note;
+            while ((note = reader.next()) != null) {
+                batch.add(note);
+                batchChars += note.getTitle().length() + note.getNote().length();
+                if (batch.size() < TRANSFER_BATCH_SIZE && batchChars < TRANSFER_BATCH_CHARS) {
+                    continue;
+                }
+
+                int storedCount = insertNotesData(batch).getSuccessCount();
+                importedCount += storedCount;
+                failedCount += batch.size() - storedCount;
+                batch.clear();
+                batchChars = 0;
+                if (listener != null) {
+                    listener.onProgress(importedCount + failedCount + reader.getSkippedCount(), reader.getByteCount());
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                int storedCount = insertNotesData(batch).getSuccessCount();
+                importedCount += storedCount;
+                failedCount += batch.size() - storedCount;
+            }
+            failedCount += reader.getSkippedCount();
+            if (listener != null) {
+                listener.onProgress(importedCount + failedCount, reader.getByteCount());
+            }
+            isSuccess = true;
+            return new TransferResult(importedCount, failedCount, reader.getByteCount());
+        } finally {
+            IMPORT_METRICS.stop(start, isSuccess);
+        }
+    }
+}
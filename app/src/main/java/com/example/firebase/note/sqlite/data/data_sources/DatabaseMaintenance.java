@@ -0,0 +1,226 @@
+package com.example.firebase.note.sqlite.data.data_sources;
+
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.os.CancellationSignal;
+import android.os.OperationCanceledException;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.firebase.core.metrics.MetricsRegistry;
+import com.example.firebase.core.metrics.OperationMetrics;
+import com.example.firebase.note.sqlite.domain.entities.MaintenanceReport;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One maintenance run over the note database: a quick integrity check, purging the tombstones of
+ * deleted notes, refreshed query planner statistics, and giving free pages back to the file system. Each step is skipped once the time
+ * budget is spent or the run is cancelled, and nothing is rewritten in a file that fails the
+ * integrity check.
+ */
+final class DatabaseMaintenance {
+    private static final String TAG = DatabaseMaintenance.class.getSimpleName();
+
+    // Value of PRAGMA auto_vacuum once free pages can be released on demand
+    private static final long AUTO_VACUUM_INCREMENTAL = 2;
+    // Pages released per incremental_vacuum step, so the budget is checked between steps
+    private static final int VACUUM_STEP_PAGES = 256;
+    // Tombstones younger than this are kept so a delete can still be undone
+    private static final long PURGE_GRACE_MILLIS = 10 * 60 * 1000;
+    // Rows physically deleted per statement, so the budget is checked between batches
+    private static final int PURGE_BATCH_SIZE = 1000;
+    private static final String PURGE_NOTES = "DELETE FROM " + Database.TABLE_NOTE_TABLE +
+            " WHERE " + Database.COLUMN_NOTE_ID + " IN (SELECT " + Database.COLUMN_NOTE_ID + " FROM " + Database.TABLE_NOTE_TABLE +
+            " WHERE " + Database.COLUMN_DELETED_AT + " IS NOT NULL AND " + Database.COLUMN_DELETED_AT + " <= ?" +
+            " LIMIT " + PURGE_BATCH_SIZE + ")";
+
+    private static final OperationMetrics QUICK_CHECK_METRICS = MetricsRegistry.getInstance().operation("sqlite.maintenance.quickCheck");
+    private static final OperationMetrics PURGE_METRICS = MetricsRegistry.getInstance().operation("sqlite.maintenance.purge");
+    private static final OperationMetrics OPTIMIZE_METRICS = MetricsRegistry.getInstance().operation("sqlite.maintenance.optimize");
+    private static final OperationMetrics VACUUM_METRICS = MetricsRegistry.getInstance().operation("sqlite.maintenance.vacuum");
+    private static final LongAdder RECLAIMED_BYTES = MetricsRegistry.getInstance().counter("sqlite.maintenance.reclaimedBytes");
+    private static final LongAdder PURGED_NOTES = MetricsRegistry.getInstance().counter("sqlite.maintenance.purgedNotes");
+
+    private final SQLiteDatabase db;
+    private final long deadlineMillis;
+    private final CancellationSignal signal;
+    private long purgedCount;
+
+    private DatabaseMaintenance(SQLiteDatabase db, long budgetMillis, CancellationSignal signal) {
+        this.db = db;
+        this.deadlineMillis = SystemClock.elapsedRealtime() + budgetMillis;
+        this.signal = signal;
+    }
+
+    /**
+     * Asks SQLite to keep freed pages releasable. This only takes effect on a new file, or on an
+     * existing one after the full VACUUM that the first maintenance run performs.
+     *
+     * @param db The database being configured.
+     */
+    static void enableIncrementalVacuum(SQLiteDatabase db) {
+        db.execSQL("PRAGMA auto_vacuum=INCREMENTAL");
+    }
+
+    /**
+     * Runs every maintenance step that fits in the budget.
+     *
+     * @param db           The writable database.
+     * @param budgetMillis The time the run may take before remaining steps are skipped.
+     * @param signal       Cancels the run, including a running integrity check.
+     * @return The outcome of the run.
+     */
+    static MaintenanceReport run(SQLiteDatabase db, long budgetMillis, CancellationSignal signal) {
+        return new DatabaseMaintenance(db, budgetMillis, signal).run();
+    }
+
+    private MaintenanceReport run() {
+        long startMillis = SystemClock.elapsedRealtime();
+        long sizeBefore = pragma("page_count") * pragma("page_size");
+
+        boolean isIntegrityOk = quickCheck();
+        boolean isPurged = false;
+        boolean isOptimized = false;
+        boolean isVacuumed = false;
+        // A damaged file is left untouched so it can still be recovered
+        if (isIntegrityOk) {
+            // Purge first so the statistics and the vacuum see the table without its tombstones
+            isPurged = hasTimeLeft() && purge();
+            isOptimized = hasTimeLeft() && optimize();
+            isVacuumed = hasTimeLeft() && vacuum();
+        }
+
+        long pageSize = pragma("page_size");
+        long reclaimedBytes = Math.max(0, sizeBefore - pragma("page_count") * pageSize);
+        RECLAIMED_BYTES.add(reclaimedBytes);
+        return new MaintenanceReport(isIntegrityOk, purgedCount, isOptimized, reclaimedBytes,
+                pragma("freelist_count") * pageSize, isIntegrityOk && isPurged && isOptimized && isVacuumed,
+                SystemClock.elapsedRealtime() - startMillis);
+    }
+
+    private boolean quickCheck() {
+        long start = QUICK_CHECK_METRICS.start();
+        boolean isOk = false;
+        Cursor cursor = null;
+
+        try {
+            // quick_check skips the index cross-checks of integrity_check; one error is enough to stop
+            cursor = db.rawQuery("PRAGMA quick_check(1)", null, signal);
+            if (cursor.moveToFirst()) {
+                isOk = "ok".equals(cursor.getString(0));
+                if (!isOk) {
+                    Log.e(TAG, "Integrity check failed: " + cursor.getString(0));
+                }
+            }
+        } catch (OperationCanceledException e) {
+            Log.w(TAG, "Integrity check cancelled.");
+        } catch (SQLException e) {
+            Log.e(TAG, "Error checking integrity: " + e.getMessage());
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+            QUICK_CHECK_METRICS.stop(start, isOk);
+        }
+
+        return isOk;
+    }
+
+    private boolean purge() {
+        long start = PURGE_METRICS.start();
+        boolean isFinished = false;
+
+        try {
+            SQLiteStatement statement = db.compileStatement(PURGE_NOTES);
+            try {
+                statement.bindLong(1, System.currentTimeMillis() - PURGE_GRACE_MILLIS);
+                // Each batch commits on its own, so readers and writers are never blocked for long
+                int deleted;
+                do {
+                    deleted = statement.executeUpdateDelete();
+                    purgedCount += deleted;
+                    PURGED_NOTES.add(deleted);
+                } while (deleted == PURGE_BATCH_SIZE && hasTimeLeft());
+                isFinished = deleted < PURGE_BATCH_SIZE;
+            } finally {
+                statement.close();
+            }
+        } catch (SQLException e) {
+            Log.e(TAG, "Error purging deleted notes: " + e.getMessage());
+        } finally {
+            PURGE_METRICS.stop(start, isFinished);
+        }
+
+        return isFinished;
+    }
+
+    private boolean optimize() {
+        long start = OPTIMIZE_METRICS.start();
+        boolean isSuccess = false;
+
+        try {
+            boolean hasStatistics = DatabaseUtils.longForQuery(db,
+                    "SELECT count(*) FROM sqlite_master WHERE name = 'sqlite_stat1'", null) > 0;
+            if (hasStatistics) {
+                // Only re-analyses tables whose size changed enough to matter
+                db.execSQL("PRAGMA optimize");
+            } else {
+                db.execSQL("ANALYZE");
+            }
+            isSuccess = true;
+        } catch (SQLException e) {
+            Log.e(TAG, "Error refreshing statistics: " + e.getMessage());
+        } finally {
+            OPTIMIZE_METRICS.stop(start, isSuccess);
+        }
+
+        return isSuccess;
+    }
+
+    private boolean vacuum() {
+        long start = VACUUM_METRICS.start();
+        boolean isFinished = false;
+
+        try {
+            if (pragma("auto_vacuum") != AUTO_VACUUM_INCREMENTAL) {
+                // Files created before incremental vacuum was enabled have to be rebuilt once; this
+                // is the only step that cannot stop part way through
+                enableIncrementalVacuum(db);
+                db.execSQL("VACUUM");
+            } else {
+                while (pragma("freelist_count") > 0 && hasTimeLeft()) {
+                    // Every page freed is one step of the statement, so it has to run as a query
+                    // and be read to the end; execSQL would stop after the first page
+                    Cursor cursor = db.rawQuery("PRAGMA incremental_vacuum(" + VACUUM_STEP_PAGES + ")", null);
+                    try {
+                        cursor.getCount();
+                    } finally {
+                        cursor.close();
+                    }
+                }
+            }
+            isFinished = pragma("freelist_count") == 0;
+
+            // The file only shrinks once the log is copied back, so empty it as well
+            DatabaseUtils.longForQuery(db, "PRAGMA wal_checkpoint(TRUNCATE)", null);
+        } catch (SQLException e) {
+            Log.e(TAG, "Error reclaiming free pages: " + e.getMessage());
+        } finally {
+            VACUUM_METRICS.stop(start, isFinished);
+        }
+
+        return isFinished;
+    }
+
+    private boolean hasTimeLeft() {
+        return !signal.isCanceled() && SystemClock.elapsedRealtime() < deadlineMillis;
+    }
+
+    private long pragma(String name) {
+        return DatabaseUtils.longForQuery(db, "PRAGMA " + name, null);
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.firebase.note.sqlite.data.data_sources;
+
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves a user's notes out of the shared {@code notes.db} that every account used to write to and
+ * into that user's own database file. Rows keep their date and stored encoding, and are copied in
+ * small transactions so memory stays flat whatever the user's data volume.
+ * <p>
+ * Rows keep their id unless the user's file already holds a different note under it, in which
+ * case the row is copied under a new id. A shared row is only deleted once its copy has
+ * committed, and a row found already copied by an earlier, interrupted move is not copied twice,
+ * so a move stopped at any point is simply run again on the next start.
+ */
+final class LegacyNoteSplitter {
+    private static final String TAG = LegacyNoteSplitter.class.getSimpleName();
+
+    // The database every account shared before notes were stored per user
+    static final String LEGACY_DATABASE_NAME = "notes.db";
+
+    private static final int COPY_BATCH_SIZE = 500;
+    // The id comes first, so the statements without it bind the remaining columns from index 1
+    private static final String[] COPIED_COLUMNS = {
+            Database.COLUMN_NOTE_ID, Database.COLUMN_TITLE, Database.COLUMN_NOTE, Database.COLUMN_DATE,
+            Database.COLUMN_USER_REFERENCE, Database.COLUMN_DAY, Database.COLUMN_CODEC, Database.COLUMN_PREVIEW,
+            Database.COLUMN_DELETED_AT};
+    // SQLiteStatement.executeInsert() result when OR IGNORE skipped the row
+    private static final long NOT_INSERTED = -1;
+
+    private LegacyNoteSplitter() {
+    }
+
+    /**
+     * Copies every note of one user from the shared database into the user's own, then removes
+     * the copied notes from the shared database. Both databases must be at the current schema
+     * version.
+     *
+     * @param legacy The shared database.
+     * @param target The user's own database.
+     * @param userId The user whose notes are moved.
+     * @return True if no notes of any user are left in the shared database.
+     */
+    static boolean moveUserNotes(SQLiteDatabase legacy, SQLiteDatabase target, String userId) {
+        String selection = Database.COLUMN_USER_REFERENCE + "=? AND " + Database.COLUMN_NOTE_ID + ">?";
+        String limit = String.valueOf(COPY_BATCH_SIZE);
+        long movedCount = 0;
+        long keptCount = 0;
+        long lastId = 0;
+        int rowCount;
+
+        SQLiteStatement insert = target.compileStatement(insertStatement(0));
+        SQLiteStatement insertWithNewId = target.compileStatement(insertStatement(1));
+        SQLiteStatement isCopied = target.compileStatement(isCopiedStatement());
+        try {
+            do {
+                rowCount = 0;
+                List<Long> copiedIds = new ArrayList<>();
+                Cursor cursor = legacy.query(Database.TABLE_NOTE_TABLE, COPIED_COLUMNS, selection,
+                        new String[]{userId, String.valueOf(lastId)}, null, null, Database.COLUMN_NOTE_ID, limit);
+                target.beginTransaction();
+                try {
+                    while (cursor.moveToNext()) {
+                        lastId = cursor.getLong(0);
+                        rowCount++;
+                        if (copy(cursor, insert, insertWithNewId, isCopied)) {
+                            copiedIds.add(lastId);
+                        }
+                    }
+                    target.setTransactionSuccessful();
+                } finally {
+                    target.endTransaction();
+                    cursor.close();
+                }
+
+                // Only drop the shared rows whose copies have committed
+                deleteIds(legacy, copiedIds);
+                movedCount += copiedIds.size();
+                keptCount += rowCount - copiedIds.size();
+            } while (rowCount == COPY_BATCH_SIZE);
+        } finally {
+            insert.close();
+            insertWithNewId.close();
+            isCopied.close();
+        }
+
+        long remainingCount = DatabaseUtils.queryNumEntries(legacy, Database.TABLE_NOTE_TABLE);
+        Log.i(TAG, "Moved " + movedCount + " notes out of the shared database, " + keptCount + " kept for a later try, "
+                + remainingCount + " left in total.");
+        return remainingCount == 0;
+    }
+
+    private static boolean copy(Cursor cursor, SQLiteStatement insert, SQLiteStatement insertWithNewId,
+                                SQLiteStatement isCopied) {
+        insert.clearBindings();
+        for (int i = 0; i < COPIED_COLUMNS.length; i++) {
+            bindColumn(insert, i + 1, cursor, i);
+        }
+        if (insert.executeInsert() != NOT_INSERTED) {
+            return true;
+        }
+
+        // The id is taken: either by this row, copied by a move that stopped before deleting it,
+        // or by a note the user wrote to their own file in the meantime
+        isCopied.clearBindings();
+        for (int i = 1; i < COPIED_COLUMNS.length; i++) {
+            bindColumn(isCopied, i, cursor, i);
+        }
+        if (isCopied.simpleQueryForLong() > 0) {
+            return true;
+        }
+
+        insertWithNewId.clearBindings();
+        for (int i = 1; i < COPIED_COLUMNS.length; i++) {
+            bindColumn(insertWithNewId, i, cursor, i);
+        }
+        long newId = insertWithNewId.executeInsert();
+        if (newId == NOT_INSERTED) {
+            Log.w(TAG, "Could not copy note " + cursor.getLong(0) + "; it stays in the shared database.");
+            return false;
+        }
+        return true;
+    }
+
+    private static void deleteIds(SQLiteDatabase legacy, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        StringBuilder inList = new StringBuilder();
+        for (int i = 0; i < ids.size(); i++) {
+            inList.append(i == 0 ? "" : ",").append(ids.get(i));
+        }
+        legacy.delete(Database.TABLE_NOTE_TABLE, Database.COLUMN_NOTE_ID + " IN (" + inList + ")", null);
+    }
+
+    private static String insertStatement(int firstColumn) {
+        StringBuilder sql = new StringBuilder("INSERT OR IGNORE INTO ").append(Database.TABLE_NOTE_TABLE).append(" (");
+        StringBuilder values = new StringBuilder();
+        for (int i = firstColumn; i < COPIED_COLUMNS.length; i++) {
+            sql.append(i == firstColumn ? "" : ", ").append(COPIED_COLUMNS[i]);
+            values.append(i == firstColumn ? "?" : ", ?");
+        }
+        return sql.append(") VALUES (").append(values).append(')').toString();
+    }
+
+    private static String isCopiedStatement() {
+        // The id is left out, as a copy made under a new id must be found as well; IS compares
+        // NULLs as equal, which the nullable preview and deleted_at columns need
+        StringBuilder sql = new StringBuilder("SELECT count(*) FROM ").append(Database.TABLE_NOTE_TABLE).append(" WHERE ");
+        for (int i = 1; i < COPIED_COLUMNS.length; i++) {
+            sql.append(i == 1 ? "" : " AND ").append(COPIED_COLUMNS[i]).append(" IS ?");
+        }
+        return sql.toString();
+    }
+
+    private static void bindColumn(SQLiteStatement statement, int index, Cursor cursor, int column) {
+        // Compressed bodies are BLOBs and plain ones TEXT, so every value keeps its own type
+        switch (cursor.getType(column)) {
+            case Cursor.FIELD_TYPE_INTEGER:
+                statement.bindLong(index, cursor.getLong(column));
+                break;
+            case Cursor.FIELD_TYPE_FLOAT:
+                statement.bindDouble(index, cursor.getDouble(column));
+                break;
+            case Cursor.FIELD_TYPE_STRING:
+                statement.bindString(index, cursor.getString(column));
+                break;
+            case Cursor.FIELD_TYPE_BLOB:
+                statement.bindBlob(index, cursor.getBlob(column));
+                break;
+            default:
+                statement.bindNull(index);
+                break;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.firebase.note.sqlite.data.data_sources;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Scores FTS4 hits from the blob returned by {@code matchinfo(table, 'pcnx')}. Framework SQLite
+ * has no built-in ranking function for FTS4, so a BM25-style score is computed here instead.
+ */
+class MatchInfoRanker {
+    // Term frequency saturation, as in BM25
+    private static final double K1 = 1.2;
+
+    private final double[] columnWeights;
+
+    /**
+     * Constructor for creating a ranker.
+     *
+     * @param columnWeights The weight of a hit in each indexed column, in column order.
+     */
+    MatchInfoRanker(double... columnWeights) {
+        this.columnWeights = columnWeights;
+    }
+
+    /**
+     * Computes the relevance of one row.
+     *
+     * @param matchInfo The 'pcnx' matchinfo blob of the row.
+     * @return The relevance score; higher is better.
+     */
+    double score(byte[] matchInfo) {
+        // matchinfo is an array of 32-bit unsigned integers in native byte order
+        ByteBuffer buffer = ByteBuffer.wrap(matchInfo).order(ByteOrder.nativeOrder());
+        int phraseCount = buffer.getInt(0);
+        int columnCount = buffer.getInt(4);
+        long rowCount = buffer.getInt(8) & 0xFFFFFFFFL;
+
+        double score = 0;
+        for (int phrase = 0; phrase < phraseCount; phrase++) {
+            for (int column = 0; column < columnCount; column++) {
+                // x: hits in this row, hits in all rows, rows with at least one hit
+                int offset = 12 + 12 * (phrase * columnCount + column);
+                long hitsInRow = buffer.getInt(offset) & 0xFFFFFFFFL;
+                long rowsWithHits = buffer.getInt(offset + 8) & 0xFFFFFFFFL;
+                if (hitsInRow == 0) {
+                    continue;
+                }
+
+                double idf = Math.log(1 + (rowCount - rowsWithHits + 0.5) / (rowsWithHits + 0.5));
+                double tf = hitsInRow * (K1 + 1) / (hitsInRow + K1);
+                double weight = column < columnWeights.length ? columnWeights[column] : 1;
+                score += weight * idf * tf;
+            }
+        }
+        return score;
+    }
+}
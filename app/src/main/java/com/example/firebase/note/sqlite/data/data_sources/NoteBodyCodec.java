@@ -0,0 +1,210 @@
+package com.example.firebase.note.sqlite.data.data_sources;
+
+import android.database.Cursor;
+import android.database.SQLException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Decides how note bodies are stored in the {@link Database#COLUMN_NOTE} column. Bodies longer
+ * than the threshold are stored as deflate-compressed BLOBs and marked in the
+ * {@link Database#COLUMN_CODEC} column; everything else stays plain text. Reading is independent
+ * of the configured threshold, so rows written under any setting can always be decoded.
+ * <p>
+ * A compressed body is the length of its UTF-8 encoding as a 4-byte big-endian integer followed
+ * by a raw deflate stream of those bytes.
+ */
+public final class NoteBodyCodec {
+    // Values of the codec column
+    public static final int CODEC_PLAIN = 0;
+    public static final int CODEC_DEFLATE = 1;
+
+    // Body length in characters above which compression is attempted by default
+    public static final int DEFAULT_THRESHOLD_CHARS = 4096;
+    // Compressed bodies must be at least this much smaller than the plain UTF-8 bytes to be kept
+    private static final double MIN_SAVING = 0.1;
+    private static final int LENGTH_PREFIX_BYTES = 4;
+
+    private final int thresholdChars;   // Bodies at or below this length are never compressed
+    private final int level;            // Deflater compression level
+
+    /**
+     * Constructor for creating a codec that compresses long bodies.
+     *
+     * @param thresholdChars The body length in characters above which bodies are compressed;
+     *                       must be larger than {@link Database#PREVIEW_LENGTH}.
+     * @param level          The deflate level, from {@link Deflater#BEST_SPEED} to
+     *                       {@link Deflater#BEST_COMPRESSION}, or {@link Deflater#DEFAULT_COMPRESSION}.
+     */
+    public NoteBodyCodec(int thresholdChars, int level) {
+        if (thresholdChars <= Database.PREVIEW_LENGTH) {
+            throw new IllegalArgumentException("thresholdChars must be larger than the preview length");
+        }
+        if (level != Deflater.DEFAULT_COMPRESSION && (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("Invalid deflate level: " + level);
+        }
+        this.thresholdChars = thresholdChars;
+        this.level = level;
+    }
+
+    /**
+     * Returns a codec that stores every body as plain text.
+     *
+     * @return The codec used when compression is turned off.
+     */
+    public static NoteBodyCodec plain() {
+        return new NoteBodyCodec(Integer.MAX_VALUE, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Returns a codec that compresses bodies longer than {@link #DEFAULT_THRESHOLD_CHARS} at
+     * deflate's default level.
+     *
+     * @return The default compressing codec.
+     */
+    public static NoteBodyCodec defaultDeflate() {
+        return new NoteBodyCodec(DEFAULT_THRESHOLD_CHARS, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Checks whether this codec ever compresses a body.
+     *
+     * @return True if long bodies are compressed, false if everything is stored as text.
+     */
+    public boolean isCompressing() {
+        return thresholdChars != Integer.MAX_VALUE;
+    }
+
+    /**
+     * Prepares a body for storage.
+     *
+     * @param note The plain note body.
+     * @return The value to store, and how it is encoded.
+     */
+    EncodedBody encode(String note) {
+        if (note.length() <= thresholdChars) {
+            return new EncodedBody(note);
+        }
+        byte[] utf8 = note.getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = compress(utf8, level);
+        if (compressed.length > utf8.length * (1 - MIN_SAVING)) {
+            // Incompressible content, such as already encoded data, is not worth the inflate cost
+            return new EncodedBody(note);
+        }
+        // Cut the preview the way substr() does, by code points rather than chars
+        int previewEnd = note.codePointCount(0, note.length()) > Database.PREVIEW_LENGTH
+                ? note.offsetByCodePoints(0, Database.PREVIEW_LENGTH) : note.length();
+        return new EncodedBody(compressed, note.substring(0, previewEnd));
+    }
+
+    /**
+     * Compresses UTF-8 bytes into the stored BLOB format.
+     *
+     * @param utf8  The plain body bytes.
+     * @param level The deflate level.
+     * @return The length-prefixed deflate stream.
+     */
+    static byte[] compress(byte[] utf8, int level) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(utf8);
+            deflater.finish();
+            // Deflate can grow incompressible input slightly, so leave room for its block headers
+            byte[] buffer = new byte[LENGTH_PREFIX_BYTES + utf8.length + utf8.length / 1000 + 64];
+            ByteBuffer.wrap(buffer).putInt(utf8.length);
+            int size = LENGTH_PREFIX_BYTES;
+            while (!deflater.finished()) {
+                if (size == buffer.length) {
+                    byte[] grown = new byte[buffer.length * 2];
+                    System.arraycopy(buffer, 0, grown, 0, size);
+                    buffer = grown;
+                }
+                size += deflater.deflate(buffer, size, buffer.length - size);
+            }
+            byte[] result = new byte[size];
+            System.arraycopy(buffer, 0, result, 0, size);
+            return result;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Restores a body stored in the compressed BLOB format.
+     *
+     * @param blob The length-prefixed deflate stream.
+     * @return The plain note body.
+     * @throws SQLException If the stored value is not a valid compressed body.
+     */
+    static String decompress(byte[] blob) {
+        if (blob == null || blob.length < LENGTH_PREFIX_BYTES) {
+            throw new SQLException("Compressed note body is truncated");
+        }
+        int length = ByteBuffer.wrap(blob).getInt();
+        if (length < 0) {
+            throw new SQLException("Corrupt compressed note body length: " + length);
+        }
+        byte[] utf8 = new byte[length];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(blob, LENGTH_PREFIX_BYTES, blob.length - LENGTH_PREFIX_BYTES);
+            int size = 0;
+            while (size < utf8.length) {
+                int read = inflater.inflate(utf8, size, utf8.length - size);
+                if (read == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new SQLException("Compressed note body ends early");
+                }
+                size += read;
+            }
+        } catch (DataFormatException e) {
+            throw new SQLException("Corrupt compressed note body", e);
+        } finally {
+            inflater.end();
+        }
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the plain body of the current row of a cursor.
+     *
+     * @param cursor     The cursor, positioned on a note row.
+     * @param noteIndex  The index of the note column.
+     * @param codecIndex The index of the codec column.
+     * @return The plain note body.
+     */
+    static String readBody(Cursor cursor, int noteIndex, int codecIndex) {
+        if (cursor.getInt(codecIndex) == CODEC_PLAIN) {
+            return cursor.getString(noteIndex);
+        }
+        return decompress(cursor.getBlob(noteIndex));
+    }
+
+    /**
+     * A note body ready to be written: either plain text, or a compressed BLOB together with the
+     * list preview that can no longer be cut from it in SQL.
+     */
+    static final class EncodedBody {
+        final int codec;
+        final String text;      // Plain body, when not compressed
+        final byte[] blob;      // Compressed body, when compressed
+        final String preview;   // Start of a compressed body, shown in lists
+
+        EncodedBody(String text) {
+            this.codec = CODEC_PLAIN;
+            this.text = text;
+            this.blob = null;
+            this.preview = null;
+        }
+
+        EncodedBody(byte[] blob, String preview) {
+            this.codec = CODEC_DEFLATE;
+            this.text = null;
+            this.blob = blob;
+            this.preview = preview;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.firebase.note.sqlite.data.data_sources;
+
+import android.util.LruCache;
+
+import com.example.firebase.note.sqlite.domain.entities.NoteEntity;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Size-bounded, least-recently-used cache of complete notes keyed by note id, plus the full note
+ * list of each user keyed by user id. Notes and lists share one character budget. {@link Database}
+ * writes through it on every change, so a cached value is never older than the table.
+ */
+public class NoteCache {
+    // Default budget, in characters of title and note text
+    public static final int DEFAULT_MAX_CHARS = 512 * 1024;
+
+    // Long keys hold single notes, String keys hold the note list of a user
+    private final LruCache<Object, Object> entries;
+    private final Set<String> listUserIds = new HashSet<>();
+    // Bumped on every write so a value read before a write is never cached after it
+    private long version;
+    private long hitCount;
+    private long missCount;
+    private long listHitCount;
+    private long listMissCount;
+
+    /**
+     * Constructor for creating a cache.
+     *
+     * @param maxChars The maximum number of title and note characters held by the cache.
+     */
+    public NoteCache(int maxChars) {
+        entries = new LruCache<Object, Object>(maxChars) {
+            @Override
+            @SuppressWarnings("unchecked")
+            protected int sizeOf(Object key, Object value) {
+                if (value instanceof NoteEntity) {
+                    return sizeOfNote((NoteEntity) value);
+                }
+                int size = 1;
+                for (NoteEntity note : (List<NoteEntity>) value) {
+                    size += sizeOfNote(note);
+                }
+                return size;
+            }
+        };
+    }
+
+    private static int sizeOfNote(NoteEntity note) {
+        return 1 + note.getTitle().length() + note.getNote().length();
+    }
+
+    /**
+     * Returns a cached note.
+     *
+     * @param noteId The ID of the note.
+     * @return The note, or null if it is not cached.
+     */
+    public synchronized NoteEntity getNote(long noteId) {
+        NoteEntity note = (NoteEntity) entries.get(noteId);
+        if (note != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return note;
+    }
+
+    /**
+     * Returns the cached list of a user's notes.
+     *
+     * @param userId The ID of the user.
+     * @return The list, or null if it is not cached.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized List<NoteEntity> getUserList(String userId) {
+        List<NoteEntity> list = (List<NoteEntity>) entries.get(userId);
+        if (list != null) {
+            listHitCount++;
+        } else {
+            listMissCount++;
+        }
+        return list;
+    }
+
+    /**
+     * Returns a token identifying the current cache contents, to be passed to
+     * {@link #putUserList} or {@link #putNote(NoteEntity, long)} once a value has been read from
+     * disk.
+     *
+     * @return The current version.
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Caches the list of a user's notes unless a write happened since it was read.
+     *
+     * @param userId      The ID of the user.
+     * @param list        The notes of the user.
+     * @param readVersion The value of {@link #getVersion()} taken before the list was read.
+     */
+    public synchronized void putUserList(String userId, List<NoteEntity> list, long readVersion) {
+        if (readVersion == version) {
+            entries.put(userId, Collections.unmodifiableList(list));
+            listUserIds.add(userId);
+        }
+    }
+
+    /**
+     * Caches a complete note read from disk unless a write happened since it was read.
+     *
+     * @param note        The note to cache.
+     * @param readVersion The value of {@link #getVersion()} taken before the note was read.
+     */
+    public synchronized void putNote(NoteEntity note, long readVersion) {
+        if (readVersion == version) {
+            putNote(note);
+        }
+    }
+
+    /**
+     * Caches a complete note. Previews are ignored because they do not hold the full content.
+     *
+     * @param note The note to cache.
+     */
+    private void putNote(NoteEntity note) {
+        if (!note.isPreview()) {
+            entries.put(note.getId(), note);
+        }
+    }
+
+    // Drops every user list, as any write may change which notes a list holds
+    private void removeUserLists() {
+        for (String userId : listUserIds) {
+            entries.remove(userId);
+        }
+        listUserIds.clear();
+    }
+
+    /**
+     * Records that a note was inserted or updated.
+     *
+     * @param note The note as it is now stored.
+     */
+    public synchronized void onNoteWritten(NoteEntity note) {
+        version++;
+        removeUserLists();
+        putNote(note);
+    }
+
+    /**
+     * Records that a note was deleted.
+     *
+     * @param noteId The ID of the deleted note.
+     */
+    public synchronized void onNoteDeleted(long noteId) {
+        version++;
+        removeUserLists();
+        entries.remove(noteId);
+    }
+
+    /**
+     * Drops every cached value.
+     */
+    public synchronized void clear() {
+        version++;
+        listUserIds.clear();
+        entries.evictAll();
+    }
+
+    /**
+     * Getter method for the number of note lookups answered from the cache.
+     *
+     * @return The note hit count.
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Getter method for the number of note lookups that missed the cache.
+     *
+     * @return The note miss count.
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Getter method for the number of notes and user lists evicted to stay within the size bound.
+     *
+     * @return The eviction count.
+     */
+    public int getEvictionCount() {
+        return entries.evictionCount();
+    }
+
+    /**
+     * Getter method for the number of user list lookups answered from the cache.
+     *
+     * @return The list hit count.
+     */
+    public synchronized long getListHitCount() {
+        return listHitCount;
+    }
+
+    /**
+     * Getter method for the number of user list lookups that missed the cache.
+     *
+     * @return The list miss count.
+     */
+    public synchronized long getListMissCount() {
+        return listMissCount;
+    }
+
+    /**
+     * Getter method for the characters currently held by the cache.
+     *
+     * @return The current size.
+     */
+    public int getSize() {
+        return entries.size();
+    }
+
+    /**
+     * Getter method for the size bound of the cache.
+     *
+     * @return The maximum size, in characters.
+     */
+    public int getMaxSize() {
+        return entries.maxSize();
+    }
+}
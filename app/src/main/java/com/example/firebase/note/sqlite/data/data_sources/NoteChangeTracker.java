@@ -0,0 +1,74 @@
+package com.example.firebase.note.sqlite.data.data_sources;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.firebase.note.sqlite.domain.callback.NoteChangeObserver;
+import com.example.firebase.note.sqlite.domain.entities.NoteChangeEvent;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Collects the rows changed by committed write transactions and publishes them to observers on
+ * the main thread. Changes committed within {@link #COALESCE_WINDOW_MS} of each other are merged
+ * into a single event.
+ */
+public class NoteChangeTracker {
+    // How long to wait for further commits before publishing
+    public static final long COALESCE_WINDOW_MS = 50;
+
+    private final List<NoteChangeObserver> observers = new CopyOnWriteArrayList<>();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable publishRunnable = this::publishPending;
+    private NoteChangeEvent pending;
+
+    /**
+     * Registers an observer. Observers are called on the main thread.
+     *
+     * @param observer The observer to add.
+     */
+    public void addObserver(NoteChangeObserver observer) {
+        observers.add(observer);
+    }
+
+    /**
+     * Unregisters an observer.
+     *
+     * @param observer The observer to remove.
+     */
+    public void removeObserver(NoteChangeObserver observer) {
+        observers.remove(observer);
+    }
+
+    /**
+     * Queues the changes of a committed transaction for publication. Must only be called once
+     * the transaction has committed.
+     *
+     * @param event The rows changed by the transaction.
+     */
+    public synchronized void onCommitted(NoteChangeEvent event) {
+        if (event.isEmpty()) {
+            return;
+        }
+        if (pending == null) {
+            pending = new NoteChangeEvent();
+            mainHandler.postDelayed(publishRunnable, COALESCE_WINDOW_MS);
+        }
+        pending.merge(event);
+    }
+
+    private void publishPending() {
+        NoteChangeEvent event;
+        synchronized (this) {
+            event = pending;
+            pending = null;
+        }
+        if (event == null || event.isEmpty()) {
+            return;
+        }
+        for (NoteChangeObserver observer : observers) {
+            observer.onNotesChanged(event);
+        }
+    }
+}
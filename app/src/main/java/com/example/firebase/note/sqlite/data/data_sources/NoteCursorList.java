@@ -0,0 +1,215 @@
+package com.example.firebase.note.sqlite.data.data_sources;
+
+import android.database.Cursor;
+
+import com.example.firebase.note.sqlite.domain.entities.NoteEntity;
+import com.example.firebase.note.sqlite.domain.entities.NotePage;
+
+import java.io.Closeable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A list of notes backed by the cursor windows of one or more query results. Rows stay in the
+ * cursor's native window and are decoded into {@link NoteEntity} objects only when read, so a
+ * RecyclerView adapter only pays for the rows it actually binds.
+ * <p>
+ * Notes added or replaced through the list are held as plain objects next to the cursor rows.
+ * The list owns its cursors and must be closed, or cleared, once it is no longer used.
+ */
+public class NoteCursorList extends AbstractList<NoteEntity> implements Closeable {
+    // Each slot is either a NoteEntity or a RowReference into one of the cursors
+    private final List<Object> slots = new ArrayList<>();
+    private final List<Cursor> cursors = new ArrayList<>();
+
+    /**
+     * Constructor for creating an empty list.
+     */
+    public NoteCursorList() {
+    }
+
+    /**
+     * Constructor for creating a list over the first {@code rowCount} rows of a cursor whose
+     * first six columns are the note id, title, content preview, date, whether the preview was
+     * truncated and the epoch day.
+     *
+     * @param cursor   The cursor to read rows from; the list takes ownership of it.
+     * @param rowCount The number of rows to expose.
+     */
+    NoteCursorList(Cursor cursor, int rowCount) {
+        cursors.add(cursor);
+        for (int position = 0; position < rowCount; position++) {
+            slots.add(new RowReference(cursor, position));
+        }
+    }
+
+    @Override
+    public NoteEntity get(int index) {
+        Object slot = slots.get(index);
+        if (slot instanceof NoteEntity) {
+            return (NoteEntity) slot;
+        }
+        return ((RowReference) slot).decode();
+    }
+
+    @Override
+    public int size() {
+        return slots.size();
+    }
+
+    @Override
+    public NoteEntity set(int index, NoteEntity note) {
+        NoteEntity previous = get(index);
+        slots.set(index, note);
+        return previous;
+    }
+
+    @Override
+    public void add(int index, NoteEntity note) {
+        slots.add(index, note);
+        modCount++;
+    }
+
+    @Override
+    public NoteEntity remove(int index) {
+        NoteEntity previous = get(index);
+        slots.remove(index);
+        modCount++;
+        return previous;
+    }
+
+    /**
+     * Finds a note by id without decoding the rows that are searched.
+     *
+     * @param noteId The ID of the note.
+     * @return The position of the note, or -1 if it is not in the list.
+     */
+    public int indexOfId(long noteId) {
+        for (int index = 0; index < slots.size(); index++) {
+            Object slot = slots.get(index);
+            long id = slot instanceof NoteEntity ? ((NoteEntity) slot).getId() : ((RowReference) slot).readId();
+            if (id == noteId) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds where a note belongs in the newest-first (day, id) listing order.
+     *
+     * @param note The note to place.
+     * @return The position at which inserting the note keeps the list ordered.
+     */
+    public int insertionIndex(NoteEntity note) {
+        long day = dayOf(note);
+        int low = 0;
+        int high = slots.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            Object slot = slots.get(middle);
+            long middleDay;
+            long middleId;
+            if (slot instanceof NoteEntity) {
+                middleDay = dayOf((NoteEntity) slot);
+                middleId = ((NoteEntity) slot).getId();
+            } else {
+                middleDay = ((RowReference) slot).readDay();
+                middleId = ((RowReference) slot).readId();
+            }
+            // Rows sort by day, then id, both descending
+            boolean isAfterMiddle = middleDay > day || (middleDay == day && middleId > note.getId());
+            if (isAfterMiddle) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static long dayOf(NoteEntity note) {
+        try {
+            return NoteDates.toEpochDay(note.getDate());
+        } catch (IllegalArgumentException e) {
+            // Same placement as rows whose date could not be migrated
+            return 0;
+        }
+    }
+
+    /**
+     * Appends the notes of a page to the end of the list without decoding them. When the page
+     * is cursor-backed its cursor is transferred to this list.
+     *
+     * @param page The page to append.
+     * @return The number of notes appended.
+     */
+    public int appendPage(NotePage page) {
+        List<NoteEntity> notes = page.getNotes();
+        if (notes instanceof NoteCursorList) {
+            NoteCursorList other = (NoteCursorList) notes;
+            int count = other.slots.size();
+            slots.addAll(other.slots);
+            cursors.addAll(other.cursors);
+            other.slots.clear();
+            other.cursors.clear();
+            modCount++;
+            return count;
+        }
+        addAll(notes);
+        return notes.size();
+    }
+
+    /**
+     * Removes every note and closes the cursors backing them.
+     */
+    @Override
+    public void clear() {
+        slots.clear();
+        for (Cursor cursor : cursors) {
+            cursor.close();
+        }
+        cursors.clear();
+        modCount++;
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+
+    /**
+     * Position of a not yet decoded note inside one of the cursors.
+     */
+    private static final class RowReference {
+        private final Cursor cursor;
+        private final int position;
+
+        RowReference(Cursor cursor, int position) {
+            this.cursor = cursor;
+            this.position = position;
+        }
+
+        long readId() {
+            moveToRow();
+            return cursor.getLong(0);
+        }
+
+        long readDay() {
+            moveToRow();
+            return cursor.getLong(5);
+        }
+
+        NoteEntity decode() {
+            moveToRow();
+            return new NoteEntity(cursor.getLong(0), cursor.getString(1), cursor.getString(2), cursor.getString(3), cursor.getInt(4) != 0);
+        }
+
+        private void moveToRow() {
+            if (!cursor.moveToPosition(position)) {
+                throw new IllegalStateException("Cursor row " + position + " is no longer available");
+            }
+        }
+    }
+}
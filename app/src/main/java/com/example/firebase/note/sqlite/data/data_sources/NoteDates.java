@@ -0,0 +1,47 @@
+package com.example.firebase.note.sqlite.data.data_sources;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Converts between the {@code year-month-day} strings shown to the user and the epoch-day
+ * integers stored in the sortable {@link Database#COLUMN_DAY} column.
+ */
+public final class NoteDates {
+
+    private NoteDates() {
+    }
+
+    /**
+     * Parses a {@code year-month-day} date. Month and day may be written with or without a leading
+     * zero, so both {@code 2024-3-7} and {@code 2024-03-07} are accepted.
+     *
+     * @param date The date to parse.
+     * @return The number of days since 1970-01-01.
+     * @throws IllegalArgumentException If the date is not a valid {@code year-month-day} value.
+     */
+    public static long toEpochDay(String date) {
+        if (date == null) {
+            throw new IllegalArgumentException("date must not be null");
+        }
+        String[] parts = date.trim().split("-");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Expected year-month-day but got: " + date);
+        }
+        try {
+            return LocalDate.of(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2])).toEpochDay();
+        } catch (NumberFormatException | DateTimeException e) {
+            throw new IllegalArgumentException("Invalid date: " + date, e);
+        }
+    }
+
+    /**
+     * Formats an epoch day as an ISO {@code yyyy-MM-dd} date.
+     *
+     * @param epochDay The number of days since 1970-01-01.
+     * @return The formatted date.
+     */
+    public static String format(long epochDay) {
+        return LocalDate.ofEpochDay(epochDay).toString();
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.firebase.note.sqlite.data.data_sources;
+
+import android.text.TextUtils;
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.Log;
+
+import com.example.firebase.note.sqlite.domain.entities.NoteEntity;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads notes written by {@link NoteJsonLinesWriter}, one line at a time, so only the note being
+ * read is held in memory. Blank lines are ignored, and lines that are not valid notes are skipped
+ * and counted rather than ending the import.
+ * <p>
+ * The underlying stream is never closed; it belongs to the caller.
+ */
+final class NoteJsonLinesReader {
+    private static final String TAG = NoteJsonLinesReader.class.getSimpleName();
+
+    private final CountingInputStream counter;
+    private final BufferedReader in;
+    private long lineNumber;
+    private long skippedCount;
+
+    NoteJsonLinesReader(InputStream stream) {
+        counter = new CountingInputStream(stream);
+        in = new BufferedReader(new InputStreamReader(counter, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the next valid note.
+     *
+     * @return The note, without an id, or null at the end of the stream.
+     * @throws IOException If the stream cannot be read.
+     */
+    NoteEntity next() throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                NoteEntity note = parse(line);
+                if (note != null) {
+                    return note;
+                }
+                Log.w(TAG, "Skipping line " + lineNumber + ": title, note and date are required.");
+            } catch (IOException | IllegalStateException e) {
+                Log.w(TAG, "Skipping malformed line " + lineNumber + ": " + e.getMessage());
+            }
+            skippedCount++;
+        }
+        return null;
+    }
+
+    /**
+     * Getter method for the number of lines that were not valid notes.
+     *
+     * @return The number of skipped lines.
+     */
+    long getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * Getter method for the number of bytes taken from the stream.
+     *
+     * @return The bytes read so far, including any read ahead into the buffer.
+     */
+    long getByteCount() {
+        return counter.count;
+    }
+
+    private static NoteEntity parse(String line) throws IOException {
+        String title = null;
+        String note = null;
+        String date = null;
+
+        JsonReader json = new JsonReader(new StringReader(line));
+        json.beginObject();
+        while (json.hasNext()) {
+            String name = json.nextName();
+            if (json.peek() == JsonToken.NULL) {
+                json.nextNull();
+            } else if (NoteJsonLinesWriter.FIELD_TITLE.equals(name)) {
+                title = json.nextString();
+            } else if (NoteJsonLinesWriter.FIELD_NOTE.equals(name)) {
+                note = json.nextString();
+            } else if (NoteJsonLinesWriter.FIELD_DATE.equals(name)) {
+                date = json.nextString();
+            } else {
+                // Unknown fields are left for newer versions of the format
+                json.skipValue();
+            }
+        }
+        json.endObject();
+
+        if (TextUtils.isEmpty(title) || TextUtils.isEmpty(note) || TextUtils.isEmpty(date)) {
+            return null;
+        }
+        return new NoteEntity(0, title, note, date);
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = in.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
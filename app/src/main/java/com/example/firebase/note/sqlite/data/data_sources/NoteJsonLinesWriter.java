@@ -0,0 +1,97 @@
+package com.example.firebase.note.sqlite.data.data_sources;
+
+import android.util.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.FilterWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes notes as JSON Lines: one UTF-8 JSON object per line, holding the title, content and
+ * date of a note. Notes are encoded straight into a small buffer, so the memory used does not
+ * depend on how many notes are written.
+ * <p>
+ * The underlying stream is flushed but never closed; it belongs to the caller.
+ */
+final class NoteJsonLinesWriter implements Flushable {
+    static final String FIELD_TITLE = "title";
+    static final String FIELD_NOTE = "note";
+    static final String FIELD_DATE = "date";
+
+    private final CountingOutputStream counter;
+    private final Writer out;
+    // Handed to one JsonWriter per line; closing it at the end of a line leaves the stream open
+    private final Writer line;
+
+    NoteJsonLinesWriter(OutputStream stream) {
+        counter = new CountingOutputStream(stream);
+        out = new BufferedWriter(new OutputStreamWriter(counter, StandardCharsets.UTF_8));
+        line = new FilterWriter(out) {
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    /**
+     * Writes one note as a line.
+     *
+     * @param title The title of the note.
+     * @param note  The content of the note.
+     * @param date  The date of the note.
+     * @throws IOException If the stream cannot be written.
+     */
+    void write(String title, String note, String date) throws IOException {
+        // A JsonWriter accepts a single top-level value, even when lenient, so each line gets its own
+        JsonWriter json = new JsonWriter(line);
+        json.beginObject();
+        json.name(FIELD_TITLE).value(title);
+        json.name(FIELD_NOTE).value(note);
+        json.name(FIELD_DATE).value(date);
+        json.endObject();
+        // Fails if the object was left incomplete
+        json.close();
+        // Line breaks inside strings are escaped, so this is the only one on the line
+        out.write('\n');
+    }
+
+    /**
+     * Getter method for the number of bytes handed to the stream.
+     *
+     * @return The bytes written so far; exact once {@link #flush()} has returned.
+     */
+    long getByteCount() {
+        return counter.count;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
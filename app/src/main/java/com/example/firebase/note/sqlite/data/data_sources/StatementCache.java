@@ -0,0 +1,72 @@
+package com.example.firebase.note.sqlite.data.data_sources;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the compiled write statements of one open database, so the hot insert, update and delete
+ * paths bind their arguments directly instead of building SQL and {@code ContentValues} on every
+ * call.
+ * <p>
+ * A compiled statement holds its bindings between calls, so binding and executing must happen
+ * under one lock. Callers hold the cache's monitor for the whole write, and take it before
+ * beginning a transaction, never inside one: a writer waiting for the monitor must not hold the
+ * database's write lock that the monitor's owner needs.
+ */
+final class StatementCache implements Closeable {
+    private final SQLiteDatabase database;
+    private final Map<String, SQLiteStatement> statements = new HashMap<>();
+
+    /**
+     * Constructor for creating an empty cache for a database.
+     *
+     * @param database The open database the statements are compiled against.
+     */
+    StatementCache(SQLiteDatabase database) {
+        this.database = database;
+    }
+
+    /**
+     * Checks whether this cache was built for the given database object. The helper hands out a
+     * new object after the database has been closed and reopened, which invalidates the cache.
+     *
+     * @param database The current writable database.
+     * @return True if the cached statements belong to that database, false otherwise.
+     */
+    boolean isFor(SQLiteDatabase database) {
+        return this.database == database;
+    }
+
+    /**
+     * Returns the compiled statement for a SQL string, compiling it on first use. Must be called
+     * while holding this cache's monitor, which also guards the statement's bindings.
+     *
+     * @param sql The statement text.
+     * @return The compiled statement, with its bindings cleared.
+     */
+    SQLiteStatement get(String sql) {
+        SQLiteStatement statement = statements.get(sql);
+        if (statement == null) {
+            statement = database.compileStatement(sql);
+            statements.put(sql, statement);
+        } else {
+            statement.clearBindings();
+        }
+        return statement;
+    }
+
+    /**
+     * Releases every compiled statement.
+     */
+    @Override
+    public synchronized void close() {
+        for (SQLiteStatement statement : statements.values()) {
+            statement.close();
+        }
+        statements.clear();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.firebase.note.sqlite.data.maintenance;
+
+import android.app.job.JobInfo;
+import android.app.job.JobParameters;
+import android.app.job.JobScheduler;
+import android.app.job.JobService;
+import android.content.ComponentName;
+import android.content.Context;
+import android.os.CancellationSignal;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.firebase.note.sqlite.data.data_sources.Database;
+import com.google.firebase.auth.FirebaseAuth;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the note database healthy while the device is idle and charging: checks its integrity,
+ * refreshes query planner statistics and gives the space left by deletes back to the system.
+ * See {@link Database#runMaintenance} for the steps.
+ */
+public class NoteMaintenanceJobService extends JobService {
+    private static final String TAG = NoteMaintenanceJobService.class.getSimpleName();
+
+    private static final int JOB_ID = 1001;
+    private static final long INTERVAL_MILLIS = TimeUnit.DAYS.toMillis(1);
+    // Well inside the time the system gives a job, so the run ends on its own terms
+    private static final long BUDGET_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Signal of the run in progress, cancelled if the system stops the job
+    private volatile CancellationSignal runningSignal;
+
+    /**
+     * Schedules the daily maintenance job unless it is already scheduled.
+     *
+     * @param context Any context.
+     */
+    public static void schedule(Context context) {
+        JobScheduler scheduler = context.getSystemService(JobScheduler.class);
+        if (scheduler == null || scheduler.getPendingJob(JOB_ID) != null) {
+            return;
+        }
+
+        JobInfo job = new JobInfo.Builder(JOB_ID, new ComponentName(context, NoteMaintenanceJobService.class))
+                .setRequiresDeviceIdle(true)
+                .setRequiresCharging(true)
+                .setPeriodic(INTERVAL_MILLIS)
+                .build();
+        if (scheduler.schedule(job) != JobScheduler.RESULT_SUCCESS) {
+            Log.e(TAG, "Failed to schedule database maintenance.");
+        }
+    }
+
+    @Override
+    public boolean onStartJob(final JobParameters params) {
+        // The database belongs to the signed-in user; without one there is nothing to maintain
+        if (FirebaseAuth.getInstance().getCurrentUser() == null) {
+            return false;
+        }
+
+        final CancellationSignal signal = new CancellationSignal();
+        final Runnable timeout = signal::cancel;
+        runningSignal = signal;
+        // Also stops an integrity check that is still running when the budget runs out
+        mainHandler.postDelayed(timeout, BUDGET_MILLIS);
+
+        Thread worker = new Thread(() -> {
+            try {
+                Database.getInstance(this).runMaintenance(BUDGET_MILLIS, signal);
+            } catch (IllegalStateException e) {
+                // The user signed out after the job started, so the database is gone or closing
+                Log.i(TAG, "Database maintenance skipped: " + e.getMessage());
+            } finally {
+                mainHandler.removeCallbacks(timeout);
+                runningSignal = null;
+                // Unfinished work is picked up by the next periodic run
+                jobFinished(params, false);
+            }
+        }, "note-maintenance");
+        worker.setPriority(Thread.MIN_PRIORITY);
+        worker.start();
+        return true;
+    }
+
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        CancellationSignal signal = runningSignal;
+        if (signal != null) {
+            signal.cancel();
+        }
+        return false;
+    }
+}
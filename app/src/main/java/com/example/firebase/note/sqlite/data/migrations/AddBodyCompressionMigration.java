@@ -0,0 +1,50 @@
+package com.example.firebase.note.sqlite.data.migrations;
+
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * Version 4 to 5: lets note bodies be stored compressed. A {@code codec} column marks how each
+ * body is encoded and a {@code preview} column holds the start of every compressed body, which
+ * list queries can no longer cut from the BLOB in SQL.
+ * <p>
+ * The external-content search index reads bodies back from notetable, which only works for plain
+ * text, so it now covers plain rows only. Compressed rows are indexed by title and preview in a
+ * small self-contained index instead; storing their full text there would undo the compression.
+ */
+class AddBodyCompressionMigration extends Migration {
+
+    AddBodyCompressionMigration() {
+        super(4);
+    }
+
+    @Override
+    public void migrate(SQLiteDatabase db) {
+        addColumnIfMissing(db, "notetable", "codec", "INTEGER NOT NULL DEFAULT 0");
+        addColumnIfMissing(db, "notetable", "preview", "TEXT");
+
+        // Every existing row is plain, so the existing index stays valid; only its triggers change
+        db.execSQL("DROP TRIGGER IF EXISTS notetable_fts_bu");
+        db.execSQL("DROP TRIGGER IF EXISTS notetable_fts_bd");
+        db.execSQL("DROP TRIGGER IF EXISTS notetable_fts_au");
+        db.execSQL("DROP TRIGGER IF EXISTS notetable_fts_ai");
+        db.execSQL("CREATE TRIGGER notetable_fts_bu BEFORE UPDATE OF title, note, codec ON notetable " +
+                "WHEN old.codec = 0 BEGIN DELETE FROM notetable_fts WHERE docid = old.id; END");
+        db.execSQL("CREATE TRIGGER notetable_fts_bd BEFORE DELETE ON notetable " +
+                "WHEN old.codec = 0 BEGIN DELETE FROM notetable_fts WHERE docid = old.id; END");
+        db.execSQL("CREATE TRIGGER notetable_fts_au AFTER UPDATE OF title, note, codec ON notetable " +
+                "WHEN new.codec = 0 BEGIN INSERT INTO notetable_fts (docid, title, note) VALUES (new.id, new.title, new.note); END");
+        db.execSQL("CREATE TRIGGER notetable_fts_ai AFTER INSERT ON notetable " +
+                "WHEN new.codec = 0 BEGIN INSERT INTO notetable_fts (docid, title, note) VALUES (new.id, new.title, new.note); END");
+
+        // Same column names as the main index, so both can be ranked and snippeted alike
+        db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS notetable_fts_packed USING fts4(title, note, tokenize=unicode61)");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS notetable_fts_packed_bu BEFORE UPDATE OF title, note, codec, preview ON notetable " +
+                "WHEN old.codec != 0 BEGIN DELETE FROM notetable_fts_packed WHERE docid = old.id; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS notetable_fts_packed_bd BEFORE DELETE ON notetable " +
+                "WHEN old.codec != 0 BEGIN DELETE FROM notetable_fts_packed WHERE docid = old.id; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS notetable_fts_packed_au AFTER UPDATE OF title, note, codec, preview ON notetable " +
+                "WHEN new.codec != 0 BEGIN INSERT INTO notetable_fts_packed (docid, title, note) VALUES (new.id, new.title, new.preview); END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS notetable_fts_packed_ai AFTER INSERT ON notetable " +
+                "WHEN new.codec != 0 BEGIN INSERT INTO notetable_fts_packed (docid, title, note) VALUES (new.id, new.title, new.preview); END");
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.firebase.note.sqlite.data.migrations;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+
+import com.example.firebase.note.sqlite.data.data_sources.NoteDates;
+
+/**
+ * Version 3 to 4: adds a sortable integer {@code day} column holding the note date as days since
+ * the epoch, fills it from the free-form {@code date} text and moves the per-user index onto it.
+ */
+class AddEpochDayMigration extends Migration {
+    private static final String TAG = AddEpochDayMigration.class.getSimpleName();
+
+    AddEpochDayMigration() {
+        super(3);
+    }
+
+    @Override
+    public void migrate(SQLiteDatabase db) {
+        addColumnIfMissing(db, "notetable", "day", "INTEGER NOT NULL DEFAULT 0");
+
+        // Only title and note are indexed for search, so re-create the update triggers to skip
+        // updates that touch neither, such as the backfill below
+        db.execSQL("DROP TRIGGER IF EXISTS notetable_fts_bu");
+        db.execSQL("DROP TRIGGER IF EXISTS notetable_fts_au");
+        db.execSQL("CREATE TRIGGER notetable_fts_bu BEFORE UPDATE OF title, note ON notetable BEGIN " +
+                "DELETE FROM notetable_fts WHERE docid = old.id; END");
+        db.execSQL("CREATE TRIGGER notetable_fts_au AFTER UPDATE OF title, note ON notetable BEGIN " +
+                "INSERT INTO notetable_fts (docid, title, note) VALUES (new.id, new.title, new.note); END");
+
+        // Dates were stored as unpadded year-month-day text, which SQL cannot parse reliably
+        SQLiteStatement update = db.compileStatement("UPDATE notetable SET day = ? WHERE id = ?");
+        try (Cursor cursor = db.rawQuery("SELECT id, date FROM notetable", null)) {
+            while (cursor.moveToNext()) {
+                long id = cursor.getLong(0);
+                try {
+                    update.bindLong(1, NoteDates.toEpochDay(cursor.getString(1)));
+                    update.bindLong(2, id);
+                    update.executeUpdateDelete();
+                } catch (IllegalArgumentException e) {
+                    // Leave the row at day 0 so it still lists, just last
+                    Log.w(TAG, "Unparsable date on note " + id + ": " + e.getMessage());
+                }
+            }
+        } finally {
+            update.close();
+        }
+
+        db.execSQL("DROP INDEX IF EXISTS idx_notetable_user_date");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_notetable_user_day ON notetable (user_id, day)");
+    }
+}
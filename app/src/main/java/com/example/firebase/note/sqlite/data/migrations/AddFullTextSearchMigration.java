@@ -0,0 +1,34 @@
+package com.example.firebase.note.sqlite.data.migrations;
+
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * Version 2 to 3: adds an FTS4 index over note titles and bodies. The index uses notetable as
+ * its external content, so the text is not stored twice, and triggers keep it in sync with every
+ * insert, update and delete.
+ */
+class AddFullTextSearchMigration extends Migration {
+
+    AddFullTextSearchMigration() {
+        super(2);
+    }
+
+    @Override
+    public void migrate(SQLiteDatabase db) {
+        db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS notetable_fts USING fts4(" +
+                "content=\"notetable\", title, note, tokenize=unicode61)");
+
+        // External content tables must see the old row removed before it changes
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS notetable_fts_bu BEFORE UPDATE ON notetable BEGIN " +
+                "DELETE FROM notetable_fts WHERE docid = old.id; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS notetable_fts_bd BEFORE DELETE ON notetable BEGIN " +
+                "DELETE FROM notetable_fts WHERE docid = old.id; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS notetable_fts_au AFTER UPDATE ON notetable BEGIN " +
+                "INSERT INTO notetable_fts (docid, title, note) VALUES (new.id, new.title, new.note); END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS notetable_fts_ai AFTER INSERT ON notetable BEGIN " +
+                "INSERT INTO notetable_fts (docid, title, note) VALUES (new.id, new.title, new.note); END");
+
+        // Index the notes that already exist
+        db.execSQL("INSERT INTO notetable_fts (notetable_fts) VALUES ('rebuild')");
+    }
+}
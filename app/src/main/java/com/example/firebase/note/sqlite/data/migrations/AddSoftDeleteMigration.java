@@ -0,0 +1,27 @@
+package com.example.firebase.note.sqlite.data.migrations;
+
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * Version 5 to 6: adds a nullable {@code deleted_at} tombstone column, so deletes only flag a row
+ * and a background purge removes it later. The per-user index becomes partial over live rows,
+ * which keeps listings from stepping over tombstones, and a second partial index lets the purge
+ * find tombstones without scanning live rows.
+ */
+class AddSoftDeleteMigration extends Migration {
+
+    AddSoftDeleteMigration() {
+        super(5);
+    }
+
+    @Override
+    public void migrate(SQLiteDatabase db) {
+        addColumnIfMissing(db, "notetable", "deleted_at", "INTEGER");
+
+        db.execSQL("DROP INDEX IF EXISTS idx_notetable_user_day");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_notetable_user_day_live ON notetable (user_id, day) " +
+                "WHERE deleted_at IS NULL");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_notetable_deleted ON notetable (deleted_at) " +
+                "WHERE deleted_at IS NOT NULL");
+    }
+}
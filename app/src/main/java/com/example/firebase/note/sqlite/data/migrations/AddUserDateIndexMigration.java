@@ -0,0 +1,19 @@
+package com.example.firebase.note.sqlite.data.migrations;
+
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * Version 1 to 2: adds a composite (user_id, date) index so per-user listing is an index range
+ * scan instead of a full table scan.
+ */
+class AddUserDateIndexMigration extends Migration {
+
+    AddUserDateIndexMigration() {
+        super(1);
+    }
+
+    @Override
+    public void migrate(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_notetable_user_date ON notetable (user_id, date)");
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.firebase.note.sqlite.data.migrations;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * A single schema step that upgrades the note database from one version to the next.
+ */
+public abstract class Migration {
+    private final int startVersion;
+
+    /**
+     * Constructor for creating a migration that upgrades {@code startVersion} to
+     * {@code startVersion + 1}.
+     *
+     * @param startVersion The schema version this migration upgrades from.
+     */
+    protected Migration(int startVersion) {
+        this.startVersion = startVersion;
+    }
+
+    /**
+     * Getter method for the schema version this migration upgrades from.
+     *
+     * @return The start version.
+     */
+    public int getStartVersion() {
+        return startVersion;
+    }
+
+    /**
+     * Getter method for the schema version this migration upgrades to.
+     *
+     * @return The end version.
+     */
+    public int getEndVersion() {
+        return startVersion + 1;
+    }
+
+    /**
+     * Applies the schema changes. Called inside the upgrade transaction opened by
+     * SQLiteOpenHelper, so implementations must not manage transactions themselves. Running a
+     * step again immediately after itself must leave the schema unchanged. Running it on a schema
+     * that later steps have changed is not supported, because a step may restore objects those
+     * steps replaced.
+     *
+     * @param db The database being upgraded.
+     */
+    public abstract void migrate(SQLiteDatabase db);
+
+    /**
+     * Adds a column to a table unless the table already has it, as ALTER TABLE has no
+     * {@code IF NOT EXISTS} form.
+     *
+     * @param db         The database being upgraded.
+     * @param table      The table to extend.
+     * @param column     The name of the new column.
+     * @param definition The type and constraints of the new column.
+     */
+    protected static void addColumnIfMissing(SQLiteDatabase db, String table, String column, String definition) {
+        try (Cursor cursor = db.rawQuery("PRAGMA table_info(" + table + ")", null)) {
+            int nameIndex = cursor.getColumnIndexOrThrow("name");
+            while (cursor.moveToNext()) {
+                if (column.equals(cursor.getString(nameIndex))) {
+                    return;
+                }
+            }
+        }
+        db.execSQL("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.firebase.note.sqlite.data.migrations;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Applies the ordered chain of {@link Migration} steps between two schema versions.
+ */
+public class MigrationRunner {
+    private static final String TAG = MigrationRunner.class.getSimpleName();
+
+    private final List<Migration> migrations;
+
+    /**
+     * Constructor for creating a runner over the given migrations.
+     *
+     * @param migrations The migrations, one per version step, in any order.
+     */
+    public MigrationRunner(List<Migration> migrations) {
+        List<Migration> sorted = new ArrayList<>(migrations);
+        Collections.sort(sorted, (a, b) -> Integer.compare(a.getStartVersion(), b.getStartVersion()));
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).getStartVersion() == sorted.get(i - 1).getStartVersion()) {
+                throw new IllegalArgumentException("Duplicate migration from version " + sorted.get(i).getStartVersion());
+            }
+        }
+        this.migrations = Collections.unmodifiableList(sorted);
+    }
+
+    /**
+     * Returns every migration known to the note database, in version order.
+     *
+     * @return The note database runner.
+     */
+    public static MigrationRunner forNoteDatabase() {
+        List<Migration> migrations = new ArrayList<>();
+        migrations.add(new AddUserDateIndexMigration());
+        migrations.add(new AddFullTextSearchMigration());
+        migrations.add(new AddEpochDayMigration());
+        migrations.add(new AddBodyCompressionMigration());
+        migrations.add(new AddSoftDeleteMigration());
+        return new MigrationRunner(migrations);
+    }
+
+    /**
+     * Upgrades the schema from {@code oldVersion} to {@code newVersion}, one step at a time.
+     *
+     * @param db         The database being upgraded.
+     * @param oldVersion The current schema version.
+     * @param newVersion The target schema version.
+     * @throws IllegalStateException If a step in the chain is missing.
+     */
+    public void migrate(SQLiteDatabase db, int oldVersion, int newVersion) {
+        int version = oldVersion;
+        for (Migration migration : migrations) {
+            if (version >= newVersion) {
+                break;
+            }
+            if (migration.getStartVersion() < version) {
+                continue;
+            }
+            if (migration.getStartVersion() != version) {
+                break;
+            }
+            Log.i(TAG, "Migrating note database from version " + migration.getStartVersion() + " to " + migration.getEndVersion());
+            migration.migrate(db);
+            version = migration.getEndVersion();
+        }
+
+        if (version != newVersion) {
+            throw new IllegalStateException("No migration path from version " + version + " to " + newVersion);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.firebase.note.sqlite.domain.callback;
+
+import com.example.firebase.note.sqlite.domain.entities.NoteChangeEvent;
+
+/**
+ * Callback interface for being told which notes changed after writes to the SQLite database.
+ */
+public interface NoteChangeObserver {
+
+    /**
+     * Called on the main thread after one or more write transactions have committed. Writes that
+     * commit close together are coalesced into a single call.
+     *
+     * @param event The net change of the coalesced writes.
+     */
+    void onNotesChanged(final NoteChangeEvent event);
+}
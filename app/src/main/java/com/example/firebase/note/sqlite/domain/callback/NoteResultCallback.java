@@ -0,0 +1,16 @@
+package com.example.firebase.note.sqlite.domain.callback;
+
+/**
+ * Callback interface for receiving the result of an asynchronous note operation.
+ *
+ * @param <T> The type of the result.
+ */
+public interface NoteResultCallback<T> {
+
+    /**
+     * Called on the main thread when the operation has finished and was not cancelled.
+     *
+     * @param result The result of the operation, or null if it failed or could not be started.
+     */
+    void onResult(final T result);
+}
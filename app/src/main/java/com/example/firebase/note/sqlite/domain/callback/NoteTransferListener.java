@@ -0,0 +1,15 @@
+package com.example.firebase.note.sqlite.domain.callback;
+
+/**
+ * Callback interface for following the progress of a bulk export or import of notes.
+ */
+public interface NoteTransferListener {
+
+    /**
+     * Called on the thread running the transfer after each batch of notes has been written.
+     *
+     * @param noteCount The number of notes processed so far, including those that failed.
+     * @param byteCount The number of bytes written or read so far.
+     */
+    void onProgress(final long noteCount, final long byteCount);
+}
@@ -0,0 +1,86 @@
+package com.example.firebase.note.sqlite.domain.entities;
+
+import java.util.Arrays;
+
+/**
+ * This class represents the per-item outcome of a batched write against the SQLite database.
+ * Item {@code i} of the result corresponds to item {@code i} of the batch that produced it.
+ */
+public class BatchResult {
+    // Marker stored for items that could not be written
+    public static final long FAILED = -1;
+
+    // Fields
+    private final long[] ids;   // Row id written for each item, or FAILED
+    private int successCount;   // Number of items written successfully
+
+    /**
+     * Constructor for creating a new BatchResult with every item marked as failed.
+     *
+     * @param size The number of items in the batch.
+     */
+    public BatchResult(int size) {
+        this.ids = new long[size];
+        Arrays.fill(ids, FAILED);
+    }
+
+    /**
+     * Records that the item at the given position was written.
+     *
+     * @param index The position of the item in the batch.
+     * @param id    The row id of the written note.
+     */
+    public void setSuccess(int index, long id) {
+        if (ids[index] == FAILED) {
+            successCount++;
+        }
+        ids[index] = id;
+    }
+
+    /**
+     * Getter method for the number of items in the batch.
+     *
+     * @return The batch size.
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Checks whether the item at the given position was written.
+     *
+     * @param index The position of the item in the batch.
+     * @return True if the item was written, false otherwise.
+     */
+    public boolean isSuccessful(int index) {
+        return ids[index] != FAILED;
+    }
+
+    /**
+     * Getter method for the row id of the item at the given position.
+     *
+     * @param index The position of the item in the batch.
+     * @return The row id of the note, or {@link #FAILED} if the item was not written.
+     */
+    public long getId(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Getter method for the number of items written successfully.
+     *
+     * @return The number of successful items.
+     */
+    public int getSuccessCount() {
+        return successCount;
+    }
+
+    /**
+     * Checks whether every item in the batch was written.
+     *
+     * @return True if no item failed, false otherwise.
+     */
+    public boolean isAllSuccessful() {
+        return successCount == ids.length;
+    }
+}
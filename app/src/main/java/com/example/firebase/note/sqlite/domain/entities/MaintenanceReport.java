@@ -0,0 +1,113 @@
+package com.example.firebase.note.sqlite.domain.entities;
+
+/**
+ * This class represents the outcome of one maintenance run over the SQLite database.
+ */
+public class MaintenanceReport {
+    // Fields
+    private final boolean isIntegrityOk;   // Whether the quick integrity check passed
+    private final long purgedCount;        // Deleted notes physically removed
+    private final boolean isOptimized;     // Whether query planner statistics were refreshed
+    private final long reclaimedBytes;     // Free space given back to the file system
+    private final long freeBytes;          // Free space still left inside the file
+    private final boolean isComplete;      // Whether every step ran within the time budget
+    private final long durationMillis;
+
+    /**
+     * Constructor for creating a new MaintenanceReport object.
+     *
+     * @param isIntegrityOk  Whether the quick integrity check passed.
+     * @param purgedCount    The number of deleted notes physically removed.
+     * @param isOptimized    Whether query planner statistics were refreshed.
+     * @param reclaimedBytes The bytes given back to the file system.
+     * @param freeBytes      The bytes still free inside the database file.
+     * @param isComplete     Whether every step ran within the time budget.
+     * @param durationMillis How long the run took.
+     */
+    public MaintenanceReport(boolean isIntegrityOk, long purgedCount, boolean isOptimized, long reclaimedBytes,
+                             long freeBytes, boolean isComplete, long durationMillis) {
+        this.isIntegrityOk = isIntegrityOk;
+        this.purgedCount = purgedCount;
+        this.isOptimized = isOptimized;
+        this.reclaimedBytes = reclaimedBytes;
+        this.freeBytes = freeBytes;
+        this.isComplete = isComplete;
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * Getter method for the integrity check result.
+     *
+     * @return True if the quick integrity check passed, false if it failed or did not run.
+     */
+    public boolean isIntegrityOk() {
+        return isIntegrityOk;
+    }
+
+    /**
+     * Getter method for the purged note count.
+     *
+     * @return The number of deleted notes whose rows were physically removed.
+     */
+    public long getPurgedCount() {
+        return purgedCount;
+    }
+
+    /**
+     * Getter method for whether the statistics were refreshed.
+     *
+     * @return True if ANALYZE or PRAGMA optimize ran.
+     */
+    public boolean isOptimized() {
+        return isOptimized;
+    }
+
+    /**
+     * Getter method for the reclaimed space.
+     *
+     * @return The bytes given back to the file system.
+     */
+    public long getReclaimedBytes() {
+        return reclaimedBytes;
+    }
+
+    /**
+     * Getter method for the remaining free space.
+     *
+     * @return The bytes still free inside the database file.
+     */
+    public long getFreeBytes() {
+        return freeBytes;
+    }
+
+    /**
+     * Getter method for whether the run finished.
+     *
+     * @return True if every step ran, false if the budget ran out or the run was cancelled.
+     */
+    public boolean isComplete() {
+        return isComplete;
+    }
+
+    /**
+     * Getter method for the duration of the run.
+     *
+     * @return How long the run took, in milliseconds.
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "MaintenanceReport{" +
+                "isIntegrityOk=" + isIntegrityOk +
+                ", purgedCount=" + purgedCount +
+                ", isOptimized=" + isOptimized +
+                ", reclaimedBytes=" + reclaimedBytes +
+                ", freeBytes=" + freeBytes +
+                ", isComplete=" + isComplete +
+                ", durationMillis=" + durationMillis +
+                '}';
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.firebase.note.sqlite.domain.entities;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * This class represents the set of notes changed by one or more committed write transactions.
+ * Events can be merged, so a burst of writes is reported as the net change of the whole burst.
+ */
+public class NoteChangeEvent {
+    // Fields
+    private final Set<Long> insertedIds = new LinkedHashSet<>();   // Notes that did not exist before
+    private final Set<Long> updatedIds = new LinkedHashSet<>();    // Existing notes whose values changed
+    private final Set<Long> deletedIds = new LinkedHashSet<>();    // Existing notes that were removed
+
+    /**
+     * Records that a note was inserted.
+     *
+     * @param id The ID of the inserted note.
+     */
+    public void addInserted(long id) {
+        insertedIds.add(id);
+    }
+
+    /**
+     * Records that a note was updated. An update to a note inserted within the same event is
+     * still reported as an insert.
+     *
+     * @param id The ID of the updated note.
+     */
+    public void addUpdated(long id) {
+        if (!insertedIds.contains(id)) {
+            updatedIds.add(id);
+        }
+    }
+
+    /**
+     * Records that a note was deleted. A note inserted and deleted within the same event is not
+     * reported at all.
+     *
+     * @param id The ID of the deleted note.
+     */
+    public void addDeleted(long id) {
+        updatedIds.remove(id);
+        if (!insertedIds.remove(id)) {
+            deletedIds.add(id);
+        }
+    }
+
+    /**
+     * Folds a later event into this one.
+     *
+     * @param later The event that happened after this one.
+     */
+    public void merge(NoteChangeEvent later) {
+        for (long id : later.insertedIds) {
+            addInserted(id);
+        }
+        for (long id : later.updatedIds) {
+            addUpdated(id);
+        }
+        for (long id : later.deletedIds) {
+            addDeleted(id);
+        }
+    }
+
+    /**
+     * Checks whether the event reports any change.
+     *
+     * @return True if no note changed, false otherwise.
+     */
+    public boolean isEmpty() {
+        return insertedIds.isEmpty() && updatedIds.isEmpty() && deletedIds.isEmpty();
+    }
+
+    /**
+     * Getter method for the IDs of the inserted notes.
+     *
+     * @return The inserted note IDs, in the order they were written.
+     */
+    public Set<Long> getInsertedIds() {
+        return Collections.unmodifiableSet(insertedIds);
+    }
+
+    /**
+     * Getter method for the IDs of the updated notes.
+     *
+     * @return The updated note IDs, in the order they were written.
+     */
+    public Set<Long> getUpdatedIds() {
+        return Collections.unmodifiableSet(updatedIds);
+    }
+
+    /**
+     * Getter method for the IDs of the deleted notes.
+     *
+     * @return The deleted note IDs, in the order they were written.
+     */
+    public Set<Long> getDeletedIds() {
+        return Collections.unmodifiableSet(deletedIds);
+    }
+}
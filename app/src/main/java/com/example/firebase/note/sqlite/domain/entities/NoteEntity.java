@@ -11,6 +11,7 @@ public class NoteEntity {
     private String title;   // Title of the note
     private String note;    // Content of the note
     private String date;    // Date of creation or last modification of the note
+    private boolean preview; // True if note holds only the beginning of the content
 
     /**
      * Constructor for creating a new NoteEntity object.
@@ -21,10 +22,24 @@ public class NoteEntity {
      * @param date  The date of creation or last modification of the note.
      */
     public NoteEntity(long id, String title, String note, String date) {
+        this(id, title, note, date, false);
+    }
+
+    /**
+     * Constructor for creating a NoteEntity object that may hold only a preview of its content.
+     *
+     * @param id      The unique identifier for the note in the SQLite database.
+     * @param title   The title of the note.
+     * @param note    The content of the note, or its beginning if this is a preview.
+     * @param date    The date of creation or last modification of the note.
+     * @param preview True if the content was cut short for display in a list.
+     */
+    public NoteEntity(long id, String title, String note, String date, boolean preview) {
         this.id = id;
         this.title = title;
         this.note = note;
         this.date = date;
+        this.preview = preview;
     }
 
     /**
@@ -62,4 +77,26 @@ public class NoteEntity {
     public String getDate() {
         return date;
     }
+
+    /**
+     * Checks whether this object holds only the beginning of the note content.
+     *
+     * @return True if the full content has to be loaded separately, false otherwise.
+     */
+    public boolean isPreview() {
+        return preview;
+    }
+
+    /**
+     * Returns this note cut down to a list preview, the same way list queries shorten it.
+     *
+     * @param maxLength The maximum number of characters of content to keep.
+     * @return This note if its content already fits, otherwise a preview copy of it.
+     */
+    public NoteEntity toPreview(int maxLength) {
+        if (preview || note.codePointCount(0, note.length()) <= maxLength) {
+            return this;
+        }
+        return new NoteEntity(id, title, note.substring(0, note.offsetByCodePoints(0, maxLength)), date, true);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.example.firebase.note.sqlite.domain.entities;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * This class represents one page of notes read from the SQLite database, together with the
+ * token needed to request the page that follows it. The notes may be backed by an open query
+ * result, so a page has to be closed, or its notes handed over to a list that takes ownership,
+ * once it has been consumed.
+ */
+public class NotePage implements Closeable {
+    // Fields
+    private final List<NoteEntity> notes;   // Notes on this page, newest first
+    private final String nextPageToken;     // Opaque token for the next page, or null on the last page
+
+    /**
+     * Constructor for creating a new NotePage object.
+     *
+     * @param notes         The notes on this page.
+     * @param nextPageToken The token for the next page, or null if this is the last page.
+     */
+    public NotePage(List<NoteEntity> notes, String nextPageToken) {
+        this.notes = notes;
+        this.nextPageToken = nextPageToken;
+    }
+
+    /**
+     * Getter method for the notes on this page.
+     *
+     * @return The notes on this page.
+     */
+    public List<NoteEntity> getNotes() {
+        return notes;
+    }
+
+    /**
+     * Getter method for the token of the next page.
+     *
+     * @return The token to pass when requesting the next page, or null if there is none.
+     */
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+    /**
+     * Checks whether more notes follow this page.
+     *
+     * @return True if another page can be requested, false otherwise.
+     */
+    public boolean hasNextPage() {
+        return nextPageToken != null;
+    }
+
+    /**
+     * Releases the query result backing the notes of this page, if any.
+     */
+    @Override
+    public void close() {
+        if (notes instanceof Closeable) {
+            try {
+                ((Closeable) notes).close();
+            } catch (IOException ignored) {
+                // Cursor-backed lists do not throw on close
+            }
+        }
+    }
+}
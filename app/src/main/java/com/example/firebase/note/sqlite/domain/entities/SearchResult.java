@@ -0,0 +1,64 @@
+package com.example.firebase.note.sqlite.domain.entities;
+
+/**
+ * This class represents a single full-text search hit over the notes stored in the SQLite
+ * database.
+ */
+public class SearchResult {
+    // Fields
+    private final long id;          // Unique identifier of the matching note
+    private final String title;     // Title of the matching note
+    private final String snippet;   // Excerpt of the note around the matched terms
+    private final double score;     // Relevance of the hit; higher is better
+
+    /**
+     * Constructor for creating a new SearchResult object.
+     *
+     * @param id      The unique identifier of the matching note.
+     * @param title   The title of the matching note.
+     * @param snippet An excerpt of the note around the matched terms.
+     * @param score   The relevance of the hit.
+     */
+    public SearchResult(long id, String title, String snippet, double score) {
+        this.id = id;
+        this.title = title;
+        this.snippet = snippet;
+        this.score = score;
+    }
+
+    /**
+     * Getter method for the unique identifier of the matching note.
+     *
+     * @return The unique identifier of the note.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Getter method for the title of the matching note.
+     *
+     * @return The title of the note.
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Getter method for the excerpt around the matched terms.
+     *
+     * @return The snippet, with matched terms wrapped in square brackets.
+     */
+    public String getSnippet() {
+        return snippet;
+    }
+
+    /**
+     * Getter method for the relevance of the hit.
+     *
+     * @return The relevance score; higher is better.
+     */
+    public double getScore() {
+        return score;
+    }
+}
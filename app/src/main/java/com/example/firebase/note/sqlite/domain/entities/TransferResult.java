@@ -0,0 +1,51 @@
+package com.example.firebase.note.sqlite.domain.entities;
+
+/**
+ * This class represents the outcome of a bulk export or import of notes.
+ */
+public class TransferResult {
+    // Fields
+    private final long noteCount;     // Notes exported or imported successfully
+    private final long failedCount;   // Notes that were malformed or could not be stored
+    private final long byteCount;     // Bytes written or read
+
+    /**
+     * Constructor for creating a new TransferResult object.
+     *
+     * @param noteCount   The number of notes transferred successfully.
+     * @param failedCount The number of notes that could not be transferred.
+     * @param byteCount   The number of bytes written or read.
+     */
+    public TransferResult(long noteCount, long failedCount, long byteCount) {
+        this.noteCount = noteCount;
+        this.failedCount = failedCount;
+        this.byteCount = byteCount;
+    }
+
+    /**
+     * Getter method for the number of notes transferred.
+     *
+     * @return The number of notes exported or imported successfully.
+     */
+    public long getNoteCount() {
+        return noteCount;
+    }
+
+    /**
+     * Getter method for the number of notes that failed.
+     *
+     * @return The number of notes that were malformed or could not be stored.
+     */
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * Getter method for the size of the transfer.
+     *
+     * @return The number of bytes written or read.
+     */
+    public long getByteCount() {
+        return byteCount;
+    }
+}
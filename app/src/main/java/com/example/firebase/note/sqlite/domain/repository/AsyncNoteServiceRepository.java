@@ -0,0 +1,125 @@
+package com.example.firebase.note.sqlite.domain.repository;
+
+import com.example.firebase.note.sqlite.domain.callback.NoteResultCallback;
+import com.example.firebase.note.sqlite.domain.callback.NoteTransferListener;
+import com.example.firebase.note.sqlite.domain.entities.NoteEntity;
+import com.example.firebase.note.sqlite.domain.entities.NotePage;
+import com.example.firebase.note.sqlite.domain.entities.SearchResult;
+import com.example.firebase.note.sqlite.domain.entities.TransferResult;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * This interface defines the asynchronous counterpart of {@link NoteServiceRepository}. Every
+ * operation runs off the main thread and reports its result on the main thread; the returned
+ * future cancels both the operation and the delivery of its result.
+ */
+public interface AsyncNoteServiceRepository {
+
+    /**
+     * Retrieves one page of notes from the SQLite database in the background.
+     *
+     * @param pageToken The token returned with the previous page, or null for the first page.
+     * @param pageSize  The maximum number of notes on the page.
+     * @param callback  The callback receiving the page.
+     * @return A future that cancels the read.
+     */
+    Future<NotePage> readNotePageServiceAsync(final String pageToken, final int pageSize, final NoteResultCallback<NotePage> callback);
+
+    /**
+     * Retrieves a single note, with its full content, from the SQLite database in the background.
+     *
+     * @param id       The unique identifier of the note.
+     * @param callback The callback receiving the note, or null if it does not exist.
+     * @return A future that cancels the read.
+     */
+    Future<NoteEntity> readNoteByIdServiceAsync(final long id, final NoteResultCallback<NoteEntity> callback);
+
+    /**
+     * Retrieves list previews of specific notes from the SQLite database in the background.
+     *
+     * @param ids      The unique identifiers of the notes.
+     * @param callback The callback receiving the previews of the notes that still exist.
+     * @return A future that cancels the read.
+     */
+    Future<List<NoteEntity>> readNotePreviewsServiceAsync(final List<Long> ids, final NoteResultCallback<List<NoteEntity>> callback);
+
+    /**
+     * Searches the notes in the SQLite database in the background.
+     *
+     * @param query    The words to search for.
+     * @param limit    The maximum number of results.
+     * @param callback The callback receiving the results, most relevant first.
+     * @return A future that cancels the search.
+     */
+    Future<List<SearchResult>> searchNoteServiceAsync(final String query, final int limit, final NoteResultCallback<List<SearchResult>> callback);
+
+    /**
+     * Adds a new note to the SQLite database in the background.
+     *
+     * @param title    The title of the note.
+     * @param note     The content of the note.
+     * @param date     The date of creation or last modification of the note.
+     * @param callback The callback receiving the stored note, or null if it could not be added.
+     * @return A future that cancels the operation.
+     */
+    Future<NoteEntity> addNoteServiceAsync(final String title, final String note, final String date, final NoteResultCallback<NoteEntity> callback);
+
+    /**
+     * Updates an existing note in the SQLite database in the background.
+     *
+     * @param key      The unique identifier of the note to be updated.
+     * @param title    The updated title of the note.
+     * @param note     The updated content of the note.
+     * @param date     The updated date of the note.
+     * @param callback The callback receiving the stored note, or null if it could not be updated.
+     * @return A future that cancels the operation.
+     */
+    Future<NoteEntity> updateNoteServiceAsync(final long key, final String title, final String note, final String date, final NoteResultCallback<NoteEntity> callback);
+
+    /**
+     * Deletes a note from the SQLite database in the background.
+     *
+     * @param id       The unique identifier of the note to be deleted.
+     * @param callback The callback receiving true if the note was deleted, false otherwise.
+     * @return A future that cancels the operation.
+     */
+    Future<Boolean> deleteNoteServiceAsync(final long id, final NoteResultCallback<Boolean> callback);
+
+    /**
+     * Restores a deleted note in the SQLite database in the background.
+     *
+     * @param id       The unique identifier of the deleted note.
+     * @param callback The callback receiving the restored note, or null if it could not be restored.
+     * @return A future that cancels the operation.
+     */
+    Future<NoteEntity> restoreNoteServiceAsync(final long id, final NoteResultCallback<NoteEntity> callback);
+
+    /**
+     * Exports every note in the SQLite database to a stream as JSON Lines in the background.
+     *
+     * @param out      The stream to write; it is not closed.
+     * @param listener The listener told about progress on the background thread, or null.
+     * @param callback The callback receiving the outcome, or null if the export failed.
+     * @return A future that cancels the delivery of the outcome.
+     */
+    Future<TransferResult> exportNotesServiceAsync(final OutputStream out, final NoteTransferListener listener, final NoteResultCallback<TransferResult> callback);
+
+    /**
+     * Imports notes from a JSON Lines stream into the SQLite database in the background.
+     *
+     * @param in       The stream to read; it is not closed.
+     * @param listener The listener told about progress on the background thread, or null.
+     * @param callback The callback receiving the outcome, or null if the stream could not be read.
+     * @return A future that cancels the delivery of the outcome.
+     */
+    Future<TransferResult> importNotesServiceAsync(final InputStream in, final NoteTransferListener listener, final NoteResultCallback<TransferResult> callback);
+
+    /**
+     * Cancels every operation started through this repository that has not delivered its result.
+     */
+    void cancelPendingServices();
+}
@@ -1,6 +1,15 @@
 package com.example.firebase.note.sqlite.domain.repository;
 
+import com.example.firebase.note.sqlite.domain.callback.NoteChangeObserver;
+import com.example.firebase.note.sqlite.domain.callback.NoteTransferListener;
+import com.example.firebase.note.sqlite.domain.entities.BatchResult;
 import com.example.firebase.note.sqlite.domain.entities.NoteEntity;
+import com.example.firebase.note.sqlite.domain.entities.NotePage;
+import com.example.firebase.note.sqlite.domain.entities.SearchResult;
+import com.example.firebase.note.sqlite.domain.entities.TransferResult;
+
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 
 /**
@@ -16,15 +25,80 @@ public interface NoteServiceRepository {
      */
     List<NoteEntity> readNoteService();
 
+    /**
+     * Retrieves one page of notes from the SQLite database, newest first.
+     *
+     * @param pageToken The token returned with the previous page, or null for the first page.
+     * @param pageSize  The maximum number of notes on the page.
+     * @return The requested page of notes.
+     */
+    NotePage readNotePageService(final String pageToken, final int pageSize);
+
+    /**
+     * Retrieves a single note, with its full content, from the SQLite database.
+     *
+     * @param id The unique identifier of the note.
+     * @return The note, or null if it does not exist.
+     */
+    NoteEntity readNoteByIdService(final long id);
+
+    /**
+     * Retrieves list previews of specific notes from the SQLite database.
+     *
+     * @param ids The unique identifiers of the notes.
+     * @return Previews of the notes that still exist, newest first.
+     */
+    List<NoteEntity> readNotePreviewsService(final List<Long> ids);
+
+    /**
+     * Registers an observer that is told which notes changed after each write.
+     *
+     * @param observer The observer, called on the main thread.
+     */
+    void observeNoteChanges(final NoteChangeObserver observer);
+
+    /**
+     * Unregisters an observer added with {@link #observeNoteChanges}.
+     *
+     * @param observer The observer to remove.
+     */
+    void stopObservingNoteChanges(final NoteChangeObserver observer);
+
+    /**
+     * Retrieves the notes dated within a range from the SQLite database, newest first.
+     *
+     * @param fromDate The first date of the range, inclusive, as year-month-day.
+     * @param toDate   The last date of the range, inclusive, as year-month-day.
+     * @return The notes dated within the range.
+     */
+    List<NoteEntity> readNotesBetweenService(final String fromDate, final String toDate);
+
+    /**
+     * Retrieves the most recent notes by note date from the SQLite database.
+     *
+     * @param limit The maximum number of notes to return.
+     * @return Up to {@code limit} notes, newest first.
+     */
+    List<NoteEntity> readRecentNotesService(final int limit);
+
+    /**
+     * Searches the titles and contents of the notes in the SQLite database.
+     *
+     * @param query The words to search for.
+     * @param limit The maximum number of results.
+     * @return The matching notes with snippets, most relevant first.
+     */
+    List<SearchResult> searchNoteService(final String query, final int limit);
+
     /**
      * Adds a new note to the SQLite database.
      *
      * @param title The title of the note.
      * @param note  The content of the note.
      * @param date  The date of creation or last modification of the note.
-     * @return True if the note was successfully added, false otherwise.
+     * @return The stored note, including its new ID, or null if it could not be added.
      */
-    boolean addNoteService(final String title, final String note, final String date);
+    NoteEntity addNoteService(final String title, final String note, final String date);
 
     /**
      * Updates an existing note in the SQLite database.
@@ -33,9 +107,9 @@ public interface NoteServiceRepository {
      * @param title The updated title of the note.
      * @param note  The updated content of the note.
      * @param date  The updated date of creation or last modification of the note.
-     * @return True if the note was successfully updated, false otherwise.
+     * @return The note as it is now stored, or null if it could not be updated.
      */
-    boolean updateNoteService(final long key, final String title, final String note, final String date);
+    NoteEntity updateNoteService(final long key, final String title, final String note, final String date);
 
     /**
      * Deletes a note from the SQLite database.
@@ -44,4 +118,54 @@ public interface NoteServiceRepository {
      * @return True if the note was successfully deleted, false otherwise.
      */
     boolean deleteNoteService(final long id);
+
+    /**
+     * Restores a deleted note in the SQLite database while its tombstone has not been purged.
+     *
+     * @param id The unique identifier of the deleted note.
+     * @return The restored note, or null if it could not be restored.
+     */
+    NoteEntity restoreNoteService(final long id);
+
+    /**
+     * Adds a batch of notes to the SQLite database in a single transaction.
+     *
+     * @param notes The notes to add; their ids are ignored.
+     * @return The per-item result, holding the id assigned to every added note.
+     */
+    BatchResult addNotesService(final List<NoteEntity> notes);
+
+    /**
+     * Updates a batch of existing notes in the SQLite database in a single transaction.
+     *
+     * @param notes The notes holding the id to update and the updated values.
+     * @return The per-item result of the update.
+     */
+    BatchResult updateNotesService(final List<NoteEntity> notes);
+
+    /**
+     * Deletes a batch of notes from the SQLite database in a single transaction.
+     *
+     * @param ids The unique identifiers of the notes to be deleted.
+     * @return The per-item result of the deletion.
+     */
+    BatchResult deleteNotesService(final List<Long> ids);
+
+    /**
+     * Exports every note in the SQLite database to a stream as JSON Lines.
+     *
+     * @param out      The stream to write; it is not closed.
+     * @param listener The listener told about progress, or null.
+     * @return The outcome of the export, or null if it failed.
+     */
+    TransferResult exportNotesService(final OutputStream out, final NoteTransferListener listener);
+
+    /**
+     * Imports notes from a JSON Lines stream into the SQLite database in batched transactions.
+     *
+     * @param in       The stream to read; it is not closed.
+     * @param listener The listener told about progress, or null.
+     * @return The outcome of the import, or null if the stream could not be read.
+     */
+    TransferResult importNotesService(final InputStream in, final NoteTransferListener listener);
 }
\ No newline at end of file
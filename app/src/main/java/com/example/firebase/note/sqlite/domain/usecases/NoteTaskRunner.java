@@ -0,0 +1,178 @@
+package com.example.firebase.note.sqlite.domain.usecases;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.firebase.note.sqlite.domain.callback.NoteResultCallback;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs note operations on a small, bounded pool of background threads and hands their results
+ * back on the main thread.
+ */
+public final class NoteTaskRunner {
+    private static final String TAG = NoteTaskRunner.class.getSimpleName();
+
+    // SQLite serialises writers, so a couple of threads are enough to overlap reads with a write
+    private static final int POOL_SIZE = 2;
+    private static final int QUEUE_CAPACITY = 64;
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static final ThreadPoolExecutor EXECUTOR = createExecutor();
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private NoteTaskRunner() {
+    }
+
+    /**
+     * Runs the work in the background and delivers its result on the main thread. If the work
+     * throws, or cannot be queued because the queue is full, the callback receives null instead.
+     * Once the returned future is cancelled the callback is never invoked, even if the work had
+     * already finished, and a {@link Closeable} result that nobody receives is closed.
+     *
+     * @param work     The work to run off the main thread.
+     * @param callback The callback receiving the result, or null on failure, on the main thread.
+     * @param <T>      The type of the result.
+     * @return A future that can be used to cancel the work and its delivery.
+     */
+    public static <T> Future<T> submit(final Callable<T> work, final NoteResultCallback<T> callback) {
+        return submit(work, callback, null);
+    }
+
+    /**
+     * Runs the work like {@link #submit(Callable, NoteResultCallback)}, then tells the caller on
+     * the main thread once the task is settled: its result was delivered or discarded, or the task
+     * was cancelled. Until then a later cancel can still stop the delivery.
+     *
+     * @param work      The work to run off the main thread.
+     * @param callback  The callback receiving the result, or null on failure, on the main thread.
+     * @param onSettled Run on the main thread once the task is settled, or null.
+     * @param <T>       The type of the result.
+     * @return A future that can be used to cancel the work and its delivery.
+     */
+    public static <T> Future<T> submit(final Callable<T> work, final NoteResultCallback<T> callback, final Runnable onSettled) {
+        NoteTask<T> task = new NoteTask<>(work, callback, onSettled);
+        try {
+            EXECUTOR.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Fail the task so the caller still hears back and can leave its loading state
+            task.reject(e);
+        }
+        return task;
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        ThreadFactory threadFactory = new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "note-io-" + count.incrementAndGet());
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            }
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static void closeQuietly(Object result) {
+        if (result instanceof Closeable) {
+            try {
+                ((Closeable) result).close();
+            } catch (IOException e) {
+                Log.w(TAG, "Failed to release discarded result: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Future that posts its result to the main thread unless it has been cancelled.
+     */
+    private static final class NoteTask<T> extends FutureTask<T> {
+        private final NoteResultCallback<T> callback;
+        private final Runnable onSettled;
+        // Set even when cancel() comes too late to stop the work itself
+        private volatile boolean isDiscarded;
+
+        NoteTask(Callable<T> work, NoteResultCallback<T> callback, Runnable onSettled) {
+            super(work);
+            this.callback = callback;
+            this.onSettled = onSettled;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            isDiscarded = true;
+            return super.cancel(mayInterruptIfRunning);
+        }
+
+        void reject(RejectedExecutionException e) {
+            setException(e);
+        }
+
+        @Override
+        protected void set(T result) {
+            super.set(result);
+            if (isCancelled()) {
+                // Finished after cancel(), so FutureTask drops the result; release what it holds open
+                closeQuietly(result);
+            }
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                // Posted rather than run here, as the caller may cancel while walking its own tasks
+                MAIN_HANDLER.post(this::settle);
+                return;
+            }
+            T value;
+            try {
+                value = get();
+            } catch (ExecutionException e) {
+                Log.e(TAG, "Note task failed: " + e.getCause(), e.getCause());
+                // Deliver the failure so the caller is not left waiting
+                value = null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                MAIN_HANDLER.post(this::settle);
+                return;
+            }
+            final T result = value;
+            MAIN_HANDLER.post(() -> {
+                try {
+                    if (!isDiscarded) {
+                        callback.onResult(result);
+                    } else {
+                        // Nobody will consume the result, so release anything it holds open
+                        closeQuietly(result);
+                    }
+                } finally {
+                    settle();
+                }
+            });
+        }
+
+        private void settle() {
+            if (onSettled != null) {
+                onSettled.run();
+            }
+        }
+    }
+}
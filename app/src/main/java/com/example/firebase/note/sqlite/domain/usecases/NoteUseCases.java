@@ -5,15 +5,33 @@ import android.database.SQLException;
 import android.text.TextUtils;
 import android.util.Log;
 
+import androidx.annotation.VisibleForTesting;
 import androidx.fragment.app.Fragment;
 
+import com.example.firebase.note.sqlite.domain.callback.NoteChangeObserver;
+import com.example.firebase.note.sqlite.domain.callback.NoteResultCallback;
+import com.example.firebase.note.sqlite.domain.callback.NoteTransferListener;
+import com.example.firebase.note.sqlite.domain.entities.BatchResult;
 import com.example.firebase.note.sqlite.domain.entities.NoteEntity;
+import com.example.firebase.note.sqlite.domain.entities.NotePage;
+import com.example.firebase.note.sqlite.domain.entities.SearchResult;
+import com.example.firebase.note.sqlite.domain.entities.TransferResult;
 import com.example.firebase.note.sqlite.data.data_sources.Database;
+import com.example.firebase.note.sqlite.data.data_sources.NoteDates;
+import com.example.firebase.note.sqlite.domain.repository.AsyncNoteServiceRepository;
 import com.example.firebase.note.sqlite.domain.repository.NoteCheckerRepository;
 import com.example.firebase.note.sqlite.domain.repository.NoteServiceRepository;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * The NoteUseCases class is responsible for managing the business logic related to CRUD (Create, Read, Update, Delete)
@@ -79,10 +97,12 @@ import java.util.List;
  *     noteUseCases.deleteNoteService(noteIdToDelete);
  * }
  */
-public abstract class NoteUseCases extends Fragment implements NoteCheckerRepository, NoteServiceRepository {
+public abstract class NoteUseCases extends Fragment implements NoteCheckerRepository, NoteServiceRepository, AsyncNoteServiceRepository {
 
-    private final Context context;
+    private final Database database;
     private final static String TAG = NoteUseCases.class.getSimpleName();
+    // Background operations whose results have not been delivered yet
+    private final Set<Future<?>> pendingTasks = new HashSet<>();
 
     /**
      * Constructor for NoteServiceManager.
@@ -90,7 +110,18 @@ public abstract class NoteUseCases extends Fragment implements NoteCheckerReposi
      * @param context The context of the application.
      */
     public NoteUseCases(Context context) {
-        this.context = context;
+        this(Database.getInstance(context));
+    }
+
+    /**
+     * Constructor for running the use cases against a specific database, such as one created by
+     * {@link Database#createForTesting} for the JVM benchmarks.
+     *
+     * @param database The database to read and write.
+     */
+    @VisibleForTesting
+    protected NoteUseCases(Database database) {
+        this.database = database;
     }
 
     /**
@@ -119,6 +150,11 @@ public abstract class NoteUseCases extends Fragment implements NoteCheckerReposi
             return false;
         }
 
+        if (!isValidDate(selectedDate)) {
+            Log.e(TAG, "Failed to add note: Date is not a valid year-month-day.");
+            return false;
+        }
+
         return true;
     }
 
@@ -154,9 +190,23 @@ public abstract class NoteUseCases extends Fragment implements NoteCheckerReposi
             return false;
         }
 
+        if (!isValidDate(updatedDate)) {
+            Log.e(TAG, "Failed to update note: Date is not a valid year-month-day.");
+            return false;
+        }
+
         return true;
     }
 
+    private static boolean isValidDate(final String date) {
+        try {
+            NoteDates.toEpochDay(date);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
     /**
      * Checks the note ID before deleting a note.
      *
@@ -182,7 +232,7 @@ public abstract class NoteUseCases extends Fragment implements NoteCheckerReposi
     @Override
     public List<NoteEntity> readNoteService() {
         List<NoteEntity> notes = new ArrayList<>();
-        try (Database database = new Database(context)) {
+        try {
             notes.addAll(database.getAllNotesForUser());
         } catch (SQLException e) {
             Log.e(TAG, "SQL error retrieving notes: " + e.getMessage(), e);
@@ -192,31 +242,171 @@ public abstract class NoteUseCases extends Fragment implements NoteCheckerReposi
         return notes;
     }
 
+    /**
+     * Reads one page of notes from the SQLite database.
+     *
+     * @param pageToken The token returned with the previous page, or null for the first page.
+     * @param pageSize  The maximum number of notes on the page.
+     * @return The requested page, or an empty last page if the read failed.
+     */
+    // Method to read a single page of notes from the SQLite database.
+    @Override
+    public NotePage readNotePageService(final String pageToken, final int pageSize) {
+        try {
+            return database.getNotePage(pageToken, pageSize);
+        } catch (SQLException e) {
+            Log.e(TAG, "SQL error retrieving note page: " + e.getMessage(), e);
+        } catch (Exception e) {
+            Log.e(TAG, "Error retrieving note page: " + e.getMessage(), e);
+        }
+        return new NotePage(new ArrayList<>(), null);
+    }
+
+    /**
+     * Reads a single note, with its full content, from the SQLite database.
+     *
+     * @param id The unique identifier of the note.
+     * @return The note, or null if it does not exist or the read failed.
+     */
+    // Method to read one complete note from the SQLite database.
+    @Override
+    public NoteEntity readNoteByIdService(final long id) {
+        try {
+            return database.getNoteById(id);
+        } catch (SQLException e) {
+            Log.e(TAG, "SQL error retrieving note " + id + ": " + e.getMessage(), e);
+        } catch (Exception e) {
+            Log.e(TAG, "Error retrieving note " + id + ": " + e.getMessage(), e);
+        }
+        return null;
+    }
+
+    /**
+     * Reads list previews of specific notes from the SQLite database.
+     *
+     * @param ids The unique identifiers of the notes.
+     * @return Previews of the notes that still exist, or an empty list if the read failed.
+     */
+    // Method to re-read only the notes reported by a change event.
+    @Override
+    public List<NoteEntity> readNotePreviewsService(final List<Long> ids) {
+        try {
+            return database.getNotePreviewsByIds(ids);
+        } catch (SQLException e) {
+            Log.e(TAG, "SQL error retrieving note previews: " + e.getMessage(), e);
+        } catch (Exception e) {
+            Log.e(TAG, "Error retrieving note previews: " + e.getMessage(), e);
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Registers an observer that is told which notes changed after each write.
+     *
+     * @param observer The observer, called on the main thread.
+     */
+    @Override
+    public void observeNoteChanges(final NoteChangeObserver observer) {
+        database.getChangeTracker().addObserver(observer);
+    }
+
+    /**
+     * Unregisters an observer added with {@link #observeNoteChanges}.
+     *
+     * @param observer The observer to remove.
+     */
+    @Override
+    public void stopObservingNoteChanges(final NoteChangeObserver observer) {
+        database.getChangeTracker().removeObserver(observer);
+    }
+
+    /**
+     * Reads the notes dated within a range from the SQLite database.
+     *
+     * @param fromDate The first date of the range, inclusive, as year-month-day.
+     * @param toDate   The last date of the range, inclusive, as year-month-day.
+     * @return The notes dated within the range, or an empty list if the read failed.
+     */
+    // Method to read the notes between two dates from the SQLite database.
+    @Override
+    public List<NoteEntity> readNotesBetweenService(final String fromDate, final String toDate) {
+        try {
+            return database.getNotesBetween(NoteDates.toEpochDay(fromDate), NoteDates.toEpochDay(toDate));
+        } catch (SQLException e) {
+            Log.e(TAG, "SQL error retrieving notes between dates: " + e.getMessage(), e);
+        } catch (Exception e) {
+            Log.e(TAG, "Error retrieving notes between dates: " + e.getMessage(), e);
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Reads the most recent notes from the SQLite database.
+     *
+     * @param limit The maximum number of notes to return.
+     * @return Up to {@code limit} notes, newest first, or an empty list if the read failed.
+     */
+    // Method to read the most recent notes from the SQLite database.
+    @Override
+    public List<NoteEntity> readRecentNotesService(final int limit) {
+        try {
+            return database.getMostRecentNotes(limit);
+        } catch (SQLException e) {
+            Log.e(TAG, "SQL error retrieving recent notes: " + e.getMessage(), e);
+        } catch (Exception e) {
+            Log.e(TAG, "Error retrieving recent notes: " + e.getMessage(), e);
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Searches the titles and contents of the notes in the SQLite database.
+     *
+     * @param query The words to search for.
+     * @param limit The maximum number of results.
+     * @return The matching notes, most relevant first, or an empty list if the search failed.
+     */
+    // Method to run a ranked full-text search over the SQLite database.
+    @Override
+    public List<SearchResult> searchNoteService(final String query, final int limit) {
+        if (TextUtils.isEmpty(query) || limit <= 0) {
+            return new ArrayList<>();
+        }
+        try {
+            return database.searchNotes(query, limit);
+        } catch (SQLException e) {
+            Log.e(TAG, "SQL error searching notes: " + e.getMessage(), e);
+        } catch (Exception e) {
+            Log.e(TAG, "Error searching notes: " + e.getMessage(), e);
+        }
+        return new ArrayList<>();
+    }
+
     /**
      * Adds a new note to the SQLite database.
      *
      * @param setTitle      The title of the new note.
      * @param setNote       The content of the new note.
      * @param selectedDate  The selected date for the new note.
+     * @return The stored note, including its new ID, or null if it could not be added.
      */
     // Method to add a new note to the SQLite database.
     @Override
-    public boolean addNoteService(final String setTitle, final String setNote, final String selectedDate) {
-        try (Database database = new Database(context)) {
-            boolean isNoteInserted = database.insertNoteData(setTitle, setNote, selectedDate);
-            if (isNoteInserted) {
+    public NoteEntity addNoteService(final String setTitle, final String setNote, final String selectedDate) {
+        try {
+            NoteEntity insertedNote = database.insertNoteData(setTitle, setNote, selectedDate);
+            if (insertedNote != null) {
                 Log.i(TAG, "Note added successfully.");
-                return true;
             } else {
                 Log.e(TAG, "Failed to add the note. Please try again.");
-                return false;
             }
+            return insertedNote;
         } catch (SQLException e) {
             Log.e(TAG, "SQL error adding note: " + e.getMessage(), e);
-            return false;
+            return null;
         } catch (Exception e) {
             Log.e(TAG, "Error adding note: " + e.getMessage(), e);
-            return false;
+            return null;
         }
     }
 
@@ -227,25 +417,25 @@ public abstract class NoteUseCases extends Fragment implements NoteCheckerReposi
      * @param title       The updated title of the note.
      * @param note        The updated content of the note.
      * @param date        The updated date of the note.
+     * @return The note as it is now stored, or null if it could not be updated.
      */
     // Method to update an existing note in the SQLite database.
     @Override
-    public boolean updateNoteService(final long key, final String title, final String note, final String date) {
-        try (Database database = new Database(context)){
-            boolean success = database.updateNoteData(key, title, note, date);
-            if (success) {
+    public NoteEntity updateNoteService(final long key, final String title, final String note, final String date) {
+        try {
+            NoteEntity updatedNote = database.updateNoteData(key, title, note, date);
+            if (updatedNote != null) {
                 Log.i(TAG, "Note updated successfully.");
-                return true;
             } else {
                 Log.e(TAG, "Failed to update note.");
-                return false;
             }
+            return updatedNote;
         } catch (SQLException e) {
             Log.e(TAG, "SQL error updating note: " + e.getMessage(), e);
-            return false;
+            return null;
         } catch (Exception e) {
             Log.e(TAG, "Error updating note: " + e.getMessage(), e);
-            return false;
+            return null;
         }
     }
 
@@ -257,7 +447,7 @@ public abstract class NoteUseCases extends Fragment implements NoteCheckerReposi
     // Method to delete a note from the SQLite database.
     @Override
     public boolean deleteNoteService(final long id) {
-        try (Database database = new Database(context)) {
+        try {
             boolean isDeleted = database.deleteNoteById(id);
             if (isDeleted) {
                 Log.i(TAG, "Note deleted successfully.");
@@ -274,4 +464,308 @@ public abstract class NoteUseCases extends Fragment implements NoteCheckerReposi
             return false;
         }
     }
+
+    /**
+     * Restores a deleted note in the SQLite database.
+     *
+     * @param id The unique identifier of the deleted note.
+     * @return The restored note, or null if it could not be restored.
+     */
+    // Method to undo the deletion of a note in the SQLite database.
+    @Override
+    public NoteEntity restoreNoteService(final long id) {
+        try {
+            NoteEntity restoredNote = database.restoreNoteById(id);
+            if (restoredNote != null) {
+                Log.i(TAG, "Note restored successfully.");
+            } else {
+                Log.e(TAG, "Failed to restore note.");
+            }
+            return restoredNote;
+        } catch (SQLException e) {
+            Log.e(TAG, "SQL error restoring note: " + e.getMessage(), e);
+            return null;
+        } catch (Exception e) {
+            Log.e(TAG, "Error restoring note: " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Adds a batch of notes to the SQLite database in a single transaction.
+     *
+     * @param notes The notes to add.
+     * @return The per-item result; every item is marked as failed if the batch could not run.
+     */
+    // Method to add many notes to the SQLite database at once.
+    @Override
+    public BatchResult addNotesService(final List<NoteEntity> notes) {
+        try {
+            BatchResult result = database.insertNotesData(notes);
+            Log.i(TAG, "Added " + result.getSuccessCount() + " of " + result.size() + " notes.");
+            return result;
+        } catch (SQLException e) {
+            Log.e(TAG, "SQL error adding notes: " + e.getMessage(), e);
+        } catch (Exception e) {
+            Log.e(TAG, "Error adding notes: " + e.getMessage(), e);
+        }
+        return new BatchResult(notes.size());
+    }
+
+    /**
+     * Updates a batch of existing notes in the SQLite database in a single transaction.
+     *
+     * @param notes The notes holding the id to update and the updated values.
+     * @return The per-item result; every item is marked as failed if the batch could not run.
+     */
+    // Method to update many notes in the SQLite database at once.
+    @Override
+    public BatchResult updateNotesService(final List<NoteEntity> notes) {
+        try {
+            BatchResult result = database.updateNotesData(notes);
+            Log.i(TAG, "Updated " + result.getSuccessCount() + " of " + result.size() + " notes.");
+            return result;
+        } catch (SQLException e) {
+            Log.e(TAG, "SQL error updating notes: " + e.getMessage(), e);
+        } catch (Exception e) {
+            Log.e(TAG, "Error updating notes: " + e.getMessage(), e);
+        }
+        return new BatchResult(notes.size());
+    }
+
+    /**
+     * Deletes a batch of notes from the SQLite database in a single transaction.
+     *
+     * @param ids The unique identifiers of the notes to be deleted.
+     * @return The per-item result; every item is marked as failed if the batch could not run.
+     */
+    // Method to delete many notes from the SQLite database at once.
+    @Override
+    public BatchResult deleteNotesService(final List<Long> ids) {
+        try {
+            BatchResult result = database.deleteNotesById(ids);
+            Log.i(TAG, "Deleted " + result.getSuccessCount() + " of " + result.size() + " notes.");
+            return result;
+        } catch (SQLException e) {
+            Log.e(TAG, "SQL error deleting notes: " + e.getMessage(), e);
+        } catch (Exception e) {
+            Log.e(TAG, "Error deleting notes: " + e.getMessage(), e);
+        }
+        return new BatchResult(ids.size());
+    }
+
+    /**
+     * Exports every note in the SQLite database to a stream as JSON Lines.
+     *
+     * @param out      The stream to write; it is not closed.
+     * @param listener The listener told about progress, or null.
+     * @return The outcome of the export, or null if it failed.
+     */
+    // Method to write all notes of the SQLite database to a stream.
+    @Override
+    public TransferResult exportNotesService(final OutputStream out, final NoteTransferListener listener) {
+        try {
+            TransferResult result = database.exportNotes(out, listener);
+            Log.i(TAG, "Exported " + result.getNoteCount() + " notes (" + result.getByteCount() + " bytes).");
+            return result;
+        } catch (SQLException e) {
+            Log.e(TAG, "SQL error exporting notes: " + e.getMessage(), e);
+        } catch (IOException e) {
+            Log.e(TAG, "Error writing exported notes: " + e.getMessage(), e);
+        } catch (Exception e) {
+            Log.e(TAG, "Error exporting notes: " + e.getMessage(), e);
+        }
+        return null;
+    }
+
+    /**
+     * Imports notes from a JSON Lines stream into the SQLite database in batched transactions.
+     * Batches committed before a failure are kept.
+     *
+     * @param in       The stream to read; it is not closed.
+     * @param listener The listener told about progress, or null.
+     * @return The outcome of the import, or null if the stream could not be read.
+     */
+    // Method to add the notes of a stream to the SQLite database.
+    @Override
+    public TransferResult importNotesService(final InputStream in, final NoteTransferListener listener) {
+        try {
+            TransferResult result = database.importNotes(in, listener);
+            Log.i(TAG, "Imported " + result.getNoteCount() + " notes, " + result.getFailedCount() + " failed.");
+            return result;
+        } catch (SQLException e) {
+            Log.e(TAG, "SQL error importing notes: " + e.getMessage(), e);
+        } catch (IOException e) {
+            Log.e(TAG, "Error reading imported notes: " + e.getMessage(), e);
+        } catch (Exception e) {
+            Log.e(TAG, "Error importing notes: " + e.getMessage(), e);
+        }
+        return null;
+    }
+
+    /**
+     * Reads one page of notes from the SQLite database off the main thread.
+     *
+     * @param pageToken The token returned with the previous page, or null for the first page.
+     * @param pageSize  The maximum number of notes on the page.
+     * @param callback  The callback receiving the page on the main thread.
+     * @return A future that cancels the read.
+     */
+    @Override
+    public Future<NotePage> readNotePageServiceAsync(final String pageToken, final int pageSize, final NoteResultCallback<NotePage> callback) {
+        return runAsync(() -> readNotePageService(pageToken, pageSize), callback);
+    }
+
+    /**
+     * Reads a single note, with its full content, from the SQLite database off the main thread.
+     *
+     * @param id       The unique identifier of the note.
+     * @param callback The callback receiving the note on the main thread.
+     * @return A future that cancels the read.
+     */
+    @Override
+    public Future<NoteEntity> readNoteByIdServiceAsync(final long id, final NoteResultCallback<NoteEntity> callback) {
+        return runAsync(() -> readNoteByIdService(id), callback);
+    }
+
+    /**
+     * Reads list previews of specific notes from the SQLite database off the main thread.
+     *
+     * @param ids      The unique identifiers of the notes.
+     * @param callback The callback receiving the previews on the main thread.
+     * @return A future that cancels the read.
+     */
+    @Override
+    public Future<List<NoteEntity>> readNotePreviewsServiceAsync(final List<Long> ids, final NoteResultCallback<List<NoteEntity>> callback) {
+        return runAsync(() -> readNotePreviewsService(ids), callback);
+    }
+
+    /**
+     * Searches the notes in the SQLite database off the main thread.
+     *
+     * @param query    The words to search for.
+     * @param limit    The maximum number of results.
+     * @param callback The callback receiving the results on the main thread.
+     * @return A future that cancels the search.
+     */
+    @Override
+    public Future<List<SearchResult>> searchNoteServiceAsync(final String query, final int limit, final NoteResultCallback<List<SearchResult>> callback) {
+        return runAsync(() -> searchNoteService(query, limit), callback);
+    }
+
+    /**
+     * Adds a new note to the SQLite database off the main thread.
+     *
+     * @param title    The title of the new note.
+     * @param note     The content of the new note.
+     * @param date     The selected date for the new note.
+     * @param callback The callback receiving the outcome on the main thread.
+     * @return A future that cancels the operation.
+     */
+    @Override
+    public Future<NoteEntity> addNoteServiceAsync(final String title, final String note, final String date, final NoteResultCallback<NoteEntity> callback) {
+        return runAsync(() -> addNoteService(title, note, date), callback);
+    }
+
+    /**
+     * Updates an existing note in the SQLite database off the main thread.
+     *
+     * @param key      The unique identifier of the note to be updated.
+     * @param title    The updated title of the note.
+     * @param note     The updated content of the note.
+     * @param date     The updated date of the note.
+     * @param callback The callback receiving the outcome on the main thread.
+     * @return A future that cancels the operation.
+     */
+    @Override
+    public Future<NoteEntity> updateNoteServiceAsync(final long key, final String title, final String note, final String date, final NoteResultCallback<NoteEntity> callback) {
+        return runAsync(() -> updateNoteService(key, title, note, date), callback);
+    }
+
+    /**
+     * Deletes a note from the SQLite database off the main thread.
+     *
+     * @param id       The unique identifier of the note to be deleted.
+     * @param callback The callback receiving the outcome on the main thread.
+     * @return A future that cancels the operation.
+     */
+    @Override
+    public Future<Boolean> deleteNoteServiceAsync(final long id, final NoteResultCallback<Boolean> callback) {
+        return runAsync(() -> deleteNoteService(id), callback);
+    }
+
+    /**
+     * Restores a deleted note in the SQLite database off the main thread.
+     *
+     * @param id       The unique identifier of the deleted note.
+     * @param callback The callback receiving the outcome on the main thread.
+     * @return A future that cancels the operation.
+     */
+    @Override
+    public Future<NoteEntity> restoreNoteServiceAsync(final long id, final NoteResultCallback<NoteEntity> callback) {
+        return runAsync(() -> restoreNoteService(id), callback);
+    }
+
+    /**
+     * Exports every note in the SQLite database to a stream off the main thread.
+     *
+     * @param out      The stream to write; it is not closed.
+     * @param listener The listener told about progress on the background thread, or null.
+     * @param callback The callback receiving the outcome on the main thread.
+     * @return A future that cancels the delivery of the outcome.
+     */
+    @Override
+    public Future<TransferResult> exportNotesServiceAsync(final OutputStream out, final NoteTransferListener listener, final NoteResultCallback<TransferResult> callback) {
+        return runAsync(() -> exportNotesService(out, listener), callback);
+    }
+
+    /**
+     * Imports notes from a stream into the SQLite database off the main thread.
+     *
+     * @param in       The stream to read; it is not closed.
+     * @param listener The listener told about progress on the background thread, or null.
+     * @param callback The callback receiving the outcome on the main thread.
+     * @return A future that cancels the delivery of the outcome.
+     */
+    @Override
+    public Future<TransferResult> importNotesServiceAsync(final InputStream in, final NoteTransferListener listener, final NoteResultCallback<TransferResult> callback) {
+        return runAsync(() -> importNotesService(in, listener), callback);
+    }
+
+    /**
+     * Cancels every background operation that has not delivered its result yet.
+     */
+    @Override
+    public void cancelPendingServices() {
+        synchronized (pendingTasks) {
+            for (Future<?> task : pendingTasks) {
+                task.cancel(false);
+            }
+            pendingTasks.clear();
+        }
+    }
+
+    @Override
+    public void onDestroyView() {
+        // Results must not reach a view hierarchy that no longer exists
+        cancelPendingServices();
+        super.onDestroyView();
+    }
+
+    private <T> Future<T> runAsync(final Callable<T> work, final NoteResultCallback<T> callback) {
+        final AtomicReference<Future<T>> taskRef = new AtomicReference<>();
+        // A task leaves the set only once its result was delivered or discarded, not when its work
+        // is done, so a result still queued on the main thread can be cancelled
+        Future<T> task = NoteTaskRunner.submit(work, callback, () -> {
+            synchronized (pendingTasks) {
+                pendingTasks.remove(taskRef.get());
+            }
+        });
+        taskRef.set(task);
+
+        synchronized (pendingTasks) {
+            pendingTasks.add(task);
+        }
+        return task;
+    }
 }
\ No newline at end of file
@@ -15,6 +15,10 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.firebase.R;
+import com.example.firebase.note.sqlite.data.data_sources.Database;
+import com.example.firebase.note.sqlite.data.data_sources.NoteCursorList;
+import com.example.firebase.note.sqlite.domain.callback.NoteChangeObserver;
+import com.example.firebase.note.sqlite.domain.entities.NoteChangeEvent;
 import com.example.firebase.note.sqlite.domain.entities.NoteEntity;
 import com.example.firebase.note.sqlite.domain.usecases.NoteUseCases;
 import com.example.firebase.note.sqlite.presentation.listener.NoteClickListener;
@@ -22,13 +26,30 @@ import com.example.firebase.note.sqlite.presentation.widget.DatePicker;
 import com.example.firebase.note.sqlite.presentation.widget.NoteHolder;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.google.android.material.floatingactionbutton.ExtendedFloatingActionButton;
+import com.google.android.material.snackbar.Snackbar;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class NoteActivity extends NoteUseCases implements NoteClickListener {
-    private final List<NoteEntity> noteList = new ArrayList<>();
+    // Notes loaded per page and how close to the end of the list the next page is requested
+    private static final int PAGE_SIZE = 30;
+    private static final int PREFETCH_DISTANCE = 10;
+
+    // Rows are decoded from the page cursors only when the adapter binds them
+    private final NoteCursorList noteList = new NoteCursorList();
     private NoteHolder noteAdapter;
+    private String nextPageToken;
+    private boolean hasNextPage;
+    private boolean isPageLoading;
+    // Bumped on every reload so pages requested for an older listing are ignored
+    private int listGeneration;
+    // Notes already patched from a write result, so their change events need no re-read
+    private final Set<Long> locallyAppliedIds = new HashSet<>();
+    // Applies committed writes to the loaded rows instead of reloading the list
+    private final NoteChangeObserver noteChangeObserver = this::onNotesChanged;
 
     public NoteActivity(Context context) {
         super(context);
@@ -42,22 +63,161 @@ public class NoteActivity extends NoteUseCases implements NoteClickListener {
         fabAddNote.setOnClickListener(view -> onNoteAdd());
 
         RecyclerView noteRecyclerView = rootView.findViewById(R.id.sqlite_Note_Recycler_View);
-        noteRecyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(requireContext());
+        noteRecyclerView.setLayoutManager(layoutManager);
 
         noteAdapter = new NoteHolder(noteList, this);
         noteRecyclerView.setAdapter(noteAdapter);
+        noteRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (hasNextPage && !isPageLoading
+                        && layoutManager.findLastVisibleItemPosition() >= noteList.size() - PREFETCH_DISTANCE) {
+                    // Adapter changes are not allowed from inside a scroll callback
+                    isPageLoading = true;
+                    recyclerView.post(() -> onNextPageRead());
+                }
+            }
+        });
 
+        observeNoteChanges(noteChangeObserver);
         onNoteRead();
 
         return rootView;
     }
 
+    @Override
+    public void onDestroyView() {
+        stopObservingNoteChanges(noteChangeObserver);
+        super.onDestroyView();
+        // Release the cursors behind the list along with the view showing it
+        listGeneration++;
+        noteList.close();
+    }
+
     @SuppressLint("NotifyDataSetChanged")
     @Override
     public void onNoteRead() {
-        noteList.clear();
-        noteList.addAll(readNoteService());
-        noteAdapter.notifyDataSetChanged();
+        // Start over from the first page; later pages are loaded while scrolling
+        final int generation = ++listGeneration;
+        isPageLoading = true;
+        readNotePageServiceAsync(null, PAGE_SIZE, page -> {
+            if (page == null) {
+                if (generation == listGeneration) {
+                    isPageLoading = false;
+                    Toast.makeText(requireContext(), "Failed to load notes. Please try again.", Toast.LENGTH_SHORT).show();
+                }
+                return;
+            }
+            if (generation != listGeneration) {
+                page.close();
+                return;
+            }
+            noteList.clear();
+            noteList.appendPage(page);
+            nextPageToken = page.getNextPageToken();
+            hasNextPage = page.hasNextPage();
+            isPageLoading = false;
+            noteAdapter.notifyDataSetChanged();
+        });
+    }
+
+    private void onNextPageRead() {
+        final int generation = listGeneration;
+        readNotePageServiceAsync(nextPageToken, PAGE_SIZE, page -> {
+            if (page == null) {
+                if (generation == listGeneration) {
+                    // Scrolling again retries the same page
+                    isPageLoading = false;
+                }
+                return;
+            }
+            if (generation != listGeneration) {
+                page.close();
+                return;
+            }
+            int start = noteList.size();
+            int count = noteList.appendPage(page);
+            nextPageToken = page.getNextPageToken();
+            hasNextPage = page.hasNextPage();
+            isPageLoading = false;
+            noteAdapter.notifyItemRangeInserted(start, count);
+        });
+    }
+
+    private void onNotesChanged(NoteChangeEvent event) {
+        for (long id : event.getDeletedIds()) {
+            int index = noteList.indexOfId(id);
+            if (index >= 0) {
+                noteList.remove(index);
+                noteAdapter.notifyItemRemoved(index);
+            }
+        }
+
+        final List<Long> changedIds = new ArrayList<>();
+        for (long id : event.getInsertedIds()) {
+            if (!locallyAppliedIds.remove(id)) {
+                changedIds.add(id);
+            }
+        }
+        for (long id : event.getUpdatedIds()) {
+            if (!locallyAppliedIds.remove(id)) {
+                changedIds.add(id);
+            }
+        }
+        if (changedIds.isEmpty()) {
+            return;
+        }
+
+        // Re-read only the changed rows and move each into its place in the listing order
+        readNotePreviewsServiceAsync(changedIds, previews -> {
+            if (previews == null) {
+                // Keep the rows as they are rather than dropping notes that could not be read
+                return;
+            }
+            for (NoteEntity note : previews) {
+                changedIds.remove(Long.valueOf(note.getId()));
+                placeNote(note);
+            }
+            // Anything not returned no longer exists
+            for (long id : changedIds) {
+                int index = noteList.indexOfId(id);
+                if (index >= 0) {
+                    noteList.remove(index);
+                    noteAdapter.notifyItemRemoved(index);
+                }
+            }
+        });
+    }
+
+    private void applyLocalWrite(NoteEntity note) {
+        // The stored note is already known, so place it without reading it back
+        locallyAppliedIds.add(note.getId());
+        placeNote(note.toPreview(Database.PREVIEW_LENGTH));
+    }
+
+    private void placeNote(NoteEntity note) {
+        int oldIndex = noteList.indexOfId(note.getId());
+        if (oldIndex >= 0) {
+            noteList.remove(oldIndex);
+        }
+
+        int newIndex = noteList.insertionIndex(note);
+        // Rows past the loaded range arrive with a later page
+        boolean isLoaded = newIndex < noteList.size() || !hasNextPage;
+
+        if (oldIndex >= 0 && isLoaded && newIndex == oldIndex) {
+            noteList.add(newIndex, note);
+            noteAdapter.notifyItemChanged(newIndex);
+            return;
+        }
+        if (oldIndex >= 0) {
+            noteAdapter.notifyItemRemoved(oldIndex);
+        }
+        if (isLoaded) {
+            noteList.add(newIndex, note);
+            noteAdapter.notifyItemInserted(newIndex);
+        }
     }
 
     @Override
@@ -76,13 +236,14 @@ public class NoteActivity extends NoteUseCases implements NoteClickListener {
                     String _date = _dateTextView.getText().toString();
 
                     if (addNoteChecker(_title, _note, _date)) {
-                        boolean isAdded = addNoteService(_title, _note, _date);
-                        if (isAdded) {
-                            onNoteRead();
-                            Toast.makeText(requireContext(), "Note added successfully", Toast.LENGTH_SHORT).show();
-                        } else {
-                            Toast.makeText(requireContext(), "Failed to add note. Please try again.", Toast.LENGTH_SHORT).show();
-                        }
+                        addNoteServiceAsync(_title, _note, _date, addedNote -> {
+                            if (addedNote != null) {
+                                applyLocalWrite(addedNote);
+                                Toast.makeText(requireContext(), "Note added successfully", Toast.LENGTH_SHORT).show();
+                            } else {
+                                Toast.makeText(requireContext(), "Failed to add note. Please try again.", Toast.LENGTH_SHORT).show();
+                            }
+                        });
                     } else {
                         Toast.makeText(requireContext(), "Failed to add note: Invalid data", Toast.LENGTH_SHORT).show();
                     }
@@ -95,6 +256,22 @@ public class NoteActivity extends NoteUseCases implements NoteClickListener {
 
     @Override
     public void onNoteUpdate(@NonNull ViewGroup container, @NonNull NoteEntity note) {
+        if (!note.isPreview()) {
+            showUpdateDialog(container, note);
+            return;
+        }
+
+        // The list only holds the beginning of long notes; fetch the full text before editing
+        readNoteByIdServiceAsync(note.getId(), fullNote -> {
+            if (fullNote != null) {
+                showUpdateDialog(container, fullNote);
+            } else {
+                Toast.makeText(requireContext(), "Failed to load note. Please try again.", Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    private void showUpdateDialog(@NonNull ViewGroup container, @NonNull NoteEntity note) {
         View dialogView = LayoutInflater.from(requireContext())
                 .inflate(R.layout.sqlite_update, container, false);
 
@@ -117,13 +294,14 @@ public class NoteActivity extends NoteUseCases implements NoteClickListener {
                         String _date = _dateTextView.getText().toString();
 
                         if (updateNoteChecker(_key, _title, _note, _date)) {
-                            boolean isUpdated = updateNoteService(_key, _title, _note, _date);
-                            if (isUpdated) {
-                                onNoteRead();
-                                Toast.makeText(requireContext(), "Note updated successfully", Toast.LENGTH_SHORT).show();
-                            } else {
-                                Toast.makeText(requireContext(), "Failed to update note. Please try again.", Toast.LENGTH_SHORT).show();
-                            }
+                            updateNoteServiceAsync(_key, _title, _note, _date, updatedNote -> {
+                                if (updatedNote != null) {
+                                    applyLocalWrite(updatedNote);
+                                    Toast.makeText(requireContext(), "Note updated successfully", Toast.LENGTH_SHORT).show();
+                                } else {
+                                    Toast.makeText(requireContext(), "Failed to update note. Please try again.", Toast.LENGTH_SHORT).show();
+                                }
+                            });
                         } else {
                             Toast.makeText(requireContext(), "Failed to update note: Invalid data", Toast.LENGTH_SHORT).show();
                         }
@@ -141,15 +319,33 @@ public class NoteActivity extends NoteUseCases implements NoteClickListener {
     public void onNoteDelete(@NonNull NoteEntity note) {
         long _id = note.getId();
         if (deleteNoteChecker(_id)) {
-            boolean isDeleted = deleteNoteService(_id);
-            if (isDeleted) {
-                onNoteRead();
-                Toast.makeText(requireContext(), "Note deleted successfully", Toast.LENGTH_SHORT).show();
-            } else {
-                Toast.makeText(requireContext(), "Failed to delete note. Please try again.", Toast.LENGTH_SHORT).show();
-            }
+            deleteNoteServiceAsync(_id, isDeleted -> {
+                if (Boolean.TRUE.equals(isDeleted)) {
+                    int index = noteList.indexOfId(_id);
+                    if (index >= 0) {
+                        noteList.remove(index);
+                        noteAdapter.notifyItemRemoved(index);
+                    }
+                    // The row is only tombstoned until maintenance purges it, so it can be brought back
+                    Snackbar.make(requireView(), "Note deleted", Snackbar.LENGTH_LONG)
+                            .setAction("Undo", view -> onNoteRestore(_id))
+                            .show();
+                } else {
+                    Toast.makeText(requireContext(), "Failed to delete note. Please try again.", Toast.LENGTH_SHORT).show();
+                }
+            });
         } else {
             Toast.makeText(requireContext(), "Failed to delete note: Invalid note ID", Toast.LENGTH_SHORT).show();
         }
     }
+
+    private void onNoteRestore(long id) {
+        restoreNoteServiceAsync(id, restoredNote -> {
+            if (restoredNote != null) {
+                applyLocalWrite(restoredNote);
+            } else {
+                Toast.makeText(requireContext(), "Failed to restore note. Please try again.", Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
 }
\ No newline at end of file
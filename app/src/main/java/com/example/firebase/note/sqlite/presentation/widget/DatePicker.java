@@ -5,6 +5,7 @@ import android.app.DatePickerDialog;
 import android.content.Context;
 import android.widget.TextView;
 import java.util.Calendar;
+import java.util.Locale;
 public class DatePicker {
     public static void showDatePickerDialog(Context context, final TextView textView) {
         Calendar calendar = Calendar.getInstance();
@@ -13,7 +14,7 @@ public class DatePicker {
         int dayOfMonth = calendar.get(Calendar.DAY_OF_MONTH);
 
         @SuppressLint("SetTextI18n") DatePickerDialog datePickerDialog = new DatePickerDialog(context,
-                (view, year1, monthOfYear, dayOfMonth1) -> textView.setText(year1 + "-" + (monthOfYear + 1) + "-" + dayOfMonth1), year, month, dayOfMonth);
+                (view, year1, monthOfYear, dayOfMonth1) -> textView.setText(String.format(Locale.US, "%04d-%02d-%02d", year1, monthOfYear + 1, dayOfMonth1)), year, month, dayOfMonth);
         datePickerDialog.show();
     }
 }
\ No newline at end of file
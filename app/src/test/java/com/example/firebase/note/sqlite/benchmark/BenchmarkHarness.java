@@ -0,0 +1,175 @@
+package com.example.firebase.note.sqlite.benchmark;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Times a repeated operation and reports its throughput and the bytes it allocates on the calling
+ * thread. Results are printed as they are measured and written to a CSV file per suite, so runs
+ * can be compared over time.
+ * <p>
+ * Benchmarks only run when the {@value #SIZES_PROPERTY} system property lists the dataset sizes
+ * to use, which the Gradle build sets from {@code -PbenchmarkSizes=100,1000,10000,100000}.
+ */
+public final class BenchmarkHarness {
+    // Comma-separated dataset sizes; benchmarks are skipped when it is not set
+    public static final String SIZES_PROPERTY = "benchmark.sizes";
+    // Directory the CSV reports are written to
+    public static final String OUTPUT_PROPERTY = "benchmark.outputDir";
+
+    private static final String CSV_HEADER = "suite,operation,dataset,iterations,ops_per_sec,bytes_per_op,detail";
+
+    /**
+     * One measured step of a benchmark.
+     */
+    public interface Operation {
+        /**
+         * Runs one iteration.
+         *
+         * @param index The iteration number, from 0.
+         */
+        void run(int index);
+    }
+
+    private final String suite;
+    private final boolean isRecording;
+    private final List<String> rows = new ArrayList<>();
+
+    private BenchmarkHarness(String suite, boolean isRecording) {
+        this.suite = suite;
+        this.isRecording = isRecording;
+    }
+
+    /**
+     * Creates a harness that records and reports every measurement.
+     *
+     * @param suite The name of the benchmark suite, used for the report file.
+     * @return A new recording harness.
+     */
+    public static BenchmarkHarness recording(String suite) {
+        return new BenchmarkHarness(suite, true);
+    }
+
+    /**
+     * Creates a harness that runs operations without reporting them, for warming up the JIT.
+     *
+     * @return A new warm-up harness.
+     */
+    public static BenchmarkHarness warmUp() {
+        return new BenchmarkHarness("warm-up", false);
+    }
+
+    /**
+     * Checks whether benchmarks were requested for this run.
+     *
+     * @return True if dataset sizes were given, false otherwise.
+     */
+    public static boolean isEnabled() {
+        return System.getProperty(SIZES_PROPERTY) != null;
+    }
+
+    /**
+     * Returns the requested dataset sizes, smallest first.
+     *
+     * @return The dataset sizes.
+     */
+    public static int[] sizes() {
+        String[] parts = System.getProperty(SIZES_PROPERTY, "").split(",");
+        List<Integer> sizes = new ArrayList<>();
+        for (String part : parts) {
+            if (!part.trim().isEmpty()) {
+                sizes.add(Integer.parseInt(part.trim()));
+            }
+        }
+        int[] result = new int[sizes.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = sizes.get(i);
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Runs an operation a number of times and records its throughput and allocation.
+     *
+     * @param operation   The name of the operation.
+     * @param datasetSize The number of notes in the dataset.
+     * @param iterations  How many times to run the operation.
+     * @param body        The operation.
+     */
+    public void measure(String operation, int datasetSize, int iterations, Operation body) {
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            body.run(i);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        long allocated = allocatedBefore < 0 ? -1 : allocatedBytes() - allocatedBefore;
+        record(operation, datasetSize, iterations, elapsedNanos, allocated, "");
+    }
+
+    /**
+     * Records a measurement taken by the caller.
+     *
+     * @param operation      The name of the operation.
+     * @param datasetSize    The size of the dataset, in notes or bytes depending on the suite.
+     * @param iterations     How many times the operation ran.
+     * @param elapsedNanos   The total time taken.
+     * @param allocatedBytes The bytes allocated on the measuring thread.
+     * @param detail         Extra suite-specific figures, or an empty string.
+     */
+    public void record(String operation, int datasetSize, int iterations, long elapsedNanos, long allocatedBytes, String detail) {
+        if (!isRecording) {
+            return;
+        }
+        double opsPerSecond = iterations * 1_000_000_000.0 / Math.max(1, elapsedNanos);
+        long bytesPerOp = allocatedBytes < 0 ? -1 : allocatedBytes / Math.max(1, iterations);
+        System.out.println(String.format(Locale.US, "%-14s %-28s n=%-7d %12.1f ops/s %10d B/op %s",
+                suite, operation, datasetSize, opsPerSecond, bytesPerOp, detail));
+        rows.add(String.format(Locale.US, "%s,%s,%d,%d,%.1f,%d,%s",
+                suite, operation, datasetSize, iterations, opsPerSecond, bytesPerOp, detail));
+    }
+
+    /**
+     * Writes the recorded measurements to {@code <outputDir>/<suite>.csv}.
+     *
+     * @throws IOException If the report cannot be written.
+     */
+    public void writeReport() throws IOException {
+        if (!isRecording) {
+            return;
+        }
+        File directory = new File(System.getProperty(OUTPUT_PROPERTY, "build/reports/benchmarks"));
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+        try (Writer writer = new FileWriter(new File(directory, suite + ".csv"))) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            for (String row : rows) {
+                writer.write(row);
+                writer.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Returns the bytes allocated so far by the current thread, or -1 if the JVM cannot tell.
+     *
+     * @return The allocated byte count.
+     */
+    public static long allocatedBytes() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
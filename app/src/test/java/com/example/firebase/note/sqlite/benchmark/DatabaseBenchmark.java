@@ -0,0 +1,89 @@
+package com.example.firebase.note.sqlite.benchmark;
+
+import android.app.Application;
+import android.content.Context;
+
+import com.example.firebase.note.sqlite.data.data_sources.Database;
+import com.example.firebase.note.sqlite.domain.entities.NoteEntity;
+import com.example.firebase.note.sqlite.domain.entities.NotePage;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.util.List;
+
+/**
+ * Benchmarks the CRUD methods of {@link Database} directly, on Robolectric's native SQLite.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33, application = Application.class)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class DatabaseBenchmark {
+
+    @Test
+    public void crud() throws Exception {
+        Assume.assumeTrue("Pass -PbenchmarkSizes to run benchmarks", BenchmarkHarness.isEnabled());
+
+        new DatabaseScenario().run(BenchmarkHarness.warmUp(), 1000);
+        BenchmarkHarness harness = BenchmarkHarness.recording("database");
+        for (int size : BenchmarkHarness.sizes()) {
+            new DatabaseScenario().run(harness, size);
+        }
+        harness.writeReport();
+    }
+
+    private static class DatabaseScenario extends NoteCrudScenario {
+        private final Context context = RuntimeEnvironment.getApplication();
+        private Database database;
+        private String databaseName;
+
+        @Override
+        protected void open(String name) {
+            databaseName = "benchmark-" + name + ".db";
+            context.deleteDatabase(databaseName);
+            database = Database.createForTesting(context, databaseName, "benchmark-user");
+        }
+
+        @Override
+        protected void close() {
+            database.close();
+            context.deleteDatabase(databaseName);
+        }
+
+        @Override
+        protected long insert(NoteEntity note) {
+            return database.insertNoteData(note.getTitle(), note.getNote(), note.getDate()).getId();
+        }
+
+        @Override
+        protected void insertAll(List<NoteEntity> notes) {
+            database.insertNotesData(notes);
+        }
+
+        @Override
+        protected NotePage readPage(String pageToken, int pageSize) {
+            return database.getNotePage(pageToken, pageSize);
+        }
+
+        @Override
+        protected List<NoteEntity> readAll() {
+            database.getNoteCache().clear();
+            return database.getAllNotesForUser();
+        }
+
+        @Override
+        protected void update(long id, NoteEntity note) {
+            database.updateNoteData(id, note.getTitle(), note.getNote(), note.getDate());
+        }
+
+        @Override
+        protected void delete(long id) {
+            database.deleteNoteById(id);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.firebase.note.sqlite.benchmark;
+
+import android.os.Looper;
+
+import com.example.firebase.note.sqlite.domain.entities.NoteEntity;
+import com.example.firebase.note.sqlite.domain.entities.NotePage;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * The CRUD workload shared by the data-layer benchmarks: single inserts, paging through the list,
+ * loading the full list, single updates and deletes, then batched inserts into an empty store.
+ * Subclasses adapt it to the layer under test.
+ */
+public abstract class NoteCrudScenario {
+    // Notes per batch in the bulk insert step
+    public static final int BATCH_SIZE = 500;
+    // Page size used by the note list screen
+    public static final int PAGE_SIZE = 30;
+    // Full-list loads per dataset; each one starts from a cold cache
+    private static final int LIST_ALL_REPEATS = 3;
+    private static final long SEED = 42;
+
+    /**
+     * Opens an empty store.
+     *
+     * @param name A name unique to this run, for the database file.
+     */
+    protected abstract void open(String name);
+
+    /**
+     * Closes the store and deletes its database file.
+     */
+    protected abstract void close();
+
+    protected abstract long insert(NoteEntity note);
+
+    protected abstract void insertAll(List<NoteEntity> notes);
+
+    protected abstract NotePage readPage(String pageToken, int pageSize);
+
+    /**
+     * Loads every note of the user, bypassing any cache.
+     *
+     * @return The notes.
+     */
+    protected abstract List<NoteEntity> readAll();
+
+    protected abstract void update(long id, NoteEntity note);
+
+    protected abstract void delete(long id);
+
+    /**
+     * Runs the workload against a dataset of the given size.
+     *
+     * @param harness The harness recording the results.
+     * @param size    The number of notes.
+     */
+    public void run(BenchmarkHarness harness, int size) {
+        List<NoteEntity> notes = SyntheticNotes.generate(size, SEED);
+        List<NoteEntity> edits = SyntheticNotes.generate(size, SEED + 1);
+        long[] ids = new long[size];
+
+        open("crud-" + size);
+        try {
+            harness.measure("insert", size, size, i -> ids[i] = insert(notes.get(i)));
+            drainChangeEvents();
+
+            String[] pageToken = new String[1];
+            int[] pagedCount = new int[1];
+            harness.measure("list page", size, (size + PAGE_SIZE - 1) / PAGE_SIZE, i -> {
+                try (NotePage page = readPage(pageToken[0], PAGE_SIZE)) {
+                    // A failed read comes back as an empty last page, which would time the error path
+                    assertFalse("Page " + i + " is empty", page.getNotes().isEmpty());
+                    for (NoteEntity note : page.getNotes()) {
+                        note.getTitle();
+                    }
+                    pagedCount[0] += page.getNotes().size();
+                    pageToken[0] = page.getNextPageToken();
+                }
+            });
+            assertEquals("Notes read by paging", size, pagedCount[0]);
+            assertNull("Token after the last page", pageToken[0]);
+
+            harness.measure("list all", size, LIST_ALL_REPEATS, i -> readAll().size());
+
+            harness.measure("update", size, size, i -> update(ids[i], edits.get(i)));
+            drainChangeEvents();
+
+            harness.measure("delete", size, size, i -> delete(ids[i]));
+            drainChangeEvents();
+        } finally {
+            close();
+        }
+
+        open("bulk-" + size);
+        try {
+            harness.measure("bulk insert x" + BATCH_SIZE, size, (size + BATCH_SIZE - 1) / BATCH_SIZE, i ->
+                    insertAll(notes.subList(i * BATCH_SIZE, Math.min(size, (i + 1) * BATCH_SIZE))));
+            drainChangeEvents();
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Delivers the change events queued on the main looper, so they do not pile up between steps.
+     */
+    private static void drainChangeEvents() {
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.firebase.note.sqlite.benchmark;
+
+import android.app.Application;
+import android.content.Context;
+
+import com.example.firebase.note.sqlite.data.data_sources.Database;
+import com.example.firebase.note.sqlite.domain.entities.NoteEntity;
+import com.example.firebase.note.sqlite.domain.entities.NotePage;
+import com.example.firebase.note.sqlite.domain.usecases.NoteUseCases;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.util.List;
+
+/**
+ * Benchmarks the synchronous services of {@link NoteUseCases}, which add validation and error
+ * handling on top of {@link Database}, on Robolectric's native SQLite.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33, application = Application.class)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class NoteUseCasesBenchmark {
+
+    @Test
+    public void crud() throws Exception {
+        Assume.assumeTrue("Pass -PbenchmarkSizes to run benchmarks", BenchmarkHarness.isEnabled());
+
+        new UseCasesScenario().run(BenchmarkHarness.warmUp(), 1000);
+        BenchmarkHarness harness = BenchmarkHarness.recording("use-cases");
+        for (int size : BenchmarkHarness.sizes()) {
+            new UseCasesScenario().run(harness, size);
+        }
+        harness.writeReport();
+    }
+
+    private static class UseCasesScenario extends NoteCrudScenario {
+        private final Context context = RuntimeEnvironment.getApplication();
+        private Database database;
+        private NoteUseCases useCases;
+        private String databaseName;
+
+        @Override
+        protected void open(String name) {
+            databaseName = "benchmark-use-cases-" + name + ".db";
+            context.deleteDatabase(databaseName);
+            database = Database.createForTesting(context, databaseName, "benchmark-user");
+            useCases = new NoteUseCases(database) {
+            };
+        }
+
+        @Override
+        protected void close() {
+            database.close();
+            context.deleteDatabase(databaseName);
+        }
+
+        @Override
+        protected long insert(NoteEntity note) {
+            useCases.addNoteChecker(note.getTitle(), note.getNote(), note.getDate());
+            return useCases.addNoteService(note.getTitle(), note.getNote(), note.getDate()).getId();
+        }
+
+        @Override
+        protected void insertAll(List<NoteEntity> notes) {
+            useCases.addNotesService(notes);
+        }
+
+        @Override
+        protected NotePage readPage(String pageToken, int pageSize) {
+            return useCases.readNotePageService(pageToken, pageSize);
+        }
+
+        @Override
+        protected List<NoteEntity> readAll() {
+            database.getNoteCache().clear();
+            return useCases.readNoteService();
+        }
+
+        @Override
+        protected void update(long id, NoteEntity note) {
+            useCases.updateNoteChecker(id, note.getTitle(), note.getNote(), note.getDate());
+            useCases.updateNoteService(id, note.getTitle(), note.getNote(), note.getDate());
+        }
+
+        @Override
+        protected void delete(long id) {
+            useCases.deleteNoteChecker(id);
+            useCases.deleteNoteService(id);
+        }
+    }
+}
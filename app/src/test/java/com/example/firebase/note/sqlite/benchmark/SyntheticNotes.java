@@ -0,0 +1,85 @@
+package com.example.firebase.note.sqlite.benchmark;
+
+import com.example.firebase.note.sqlite.data.data_sources.NoteDates;
+import com.example.firebase.note.sqlite.domain.entities.NoteEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates reproducible note datasets shaped like real use: mostly short notes, with a share of
+ * long pasted logs, spread over a few years of dates.
+ */
+public final class SyntheticNotes {
+    private static final String[] WORDS = {
+            "meeting", "groceries", "call", "project", "deadline", "review", "idea", "travel",
+            "budget", "doctor", "birthday", "recipe", "book", "workout", "invoice", "garden"
+    };
+    // Share of notes that are long pasted logs
+    private static final double LONG_NOTE_RATIO = 0.1;
+    // Dates are spread over this many days up to LAST_DAY
+    private static final int DATE_SPAN_DAYS = 3 * 365;
+    private static final long LAST_DAY = NoteDates.toEpochDay("2024-12-31");
+
+    private SyntheticNotes() {
+    }
+
+    /**
+     * Generates a dataset. The same size and seed always produce the same notes.
+     *
+     * @param size The number of notes.
+     * @param seed The random seed.
+     * @return The notes, with ids left at 0.
+     */
+    public static List<NoteEntity> generate(int size, long seed) {
+        Random random = new Random(seed);
+        List<NoteEntity> notes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String title = words(random, 2 + random.nextInt(4));
+            String body = random.nextDouble() < LONG_NOTE_RATIO
+                    ? logText(random, 2_000 + random.nextInt(18_000))
+                    : words(random, 10 + random.nextInt(50));
+            String date = NoteDates.format(LAST_DAY - random.nextInt(DATE_SPAN_DAYS));
+            notes.add(new NoteEntity(0, title, body, date));
+        }
+        return notes;
+    }
+
+    /**
+     * Generates space-separated words.
+     *
+     * @param random The random source.
+     * @param count  The number of words.
+     * @return The text.
+     */
+    public static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Generates log-like text, which repeats a lot and compresses well.
+     *
+     * @param random The random source.
+     * @param length The approximate length in characters.
+     * @return The text.
+     */
+    public static String logText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length + 80);
+        int line = 0;
+        while (text.length() < length) {
+            text.append("2024-05-").append(10 + random.nextInt(20)).append(' ')
+                    .append(random.nextInt(24)).append(':').append(random.nextInt(60))
+                    .append(" I/NoteSync(").append(1000 + random.nextInt(9000)).append("): ")
+                    .append(words(random, 3 + random.nextInt(6))).append(" #").append(line++).append('\n');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.firebase.note.sqlite.data.data_sources;
+
+import com.example.firebase.note.sqlite.benchmark.BenchmarkHarness;
+import com.example.firebase.note.sqlite.benchmark.SyntheticNotes;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+/**
+ * Measures the size versus CPU trade-off of compressed note bodies: the stored size relative to
+ * plain UTF-8 and the throughput of compressing and inflating, per body size and deflate level.
+ * Runs on the plain JVM, as the codec only depends on {@code java.util.zip}.
+ */
+public class NoteBodyCodecBenchmark {
+    private static final int[] BODY_CHARS = {1_024, 4_096, 16_384, 65_536, 262_144};
+    private static final int[] LEVELS = {Deflater.BEST_SPEED, Deflater.DEFAULT_COMPRESSION, Deflater.BEST_COMPRESSION};
+    // Bytes processed per measurement, so small bodies run enough iterations to time
+    private static final long BYTES_PER_RUN = 32L * 1024 * 1024;
+
+    @Test
+    public void compression() throws Exception {
+        Assume.assumeTrue("Pass -PbenchmarkSizes to run benchmarks", BenchmarkHarness.isEnabled());
+
+        BenchmarkHarness harness = BenchmarkHarness.recording("body-codec");
+        Random random = new Random(42);
+        for (int chars : BODY_CHARS) {
+            measure(BenchmarkHarness.warmUp(), "log", SyntheticNotes.logText(random, chars));
+            measure(harness, "log", SyntheticNotes.logText(random, chars));
+            measure(harness, "prose", SyntheticNotes.words(random, chars / 7));
+            measure(harness, "random", randomText(random, chars));
+        }
+        harness.writeReport();
+    }
+
+    private static void measure(BenchmarkHarness harness, String kind, String body) {
+        byte[] utf8 = body.getBytes(StandardCharsets.UTF_8);
+        int iterations = (int) Math.max(1, BYTES_PER_RUN / utf8.length);
+
+        for (int level : LEVELS) {
+            byte[] compressed = NoteBodyCodec.compress(utf8, level);
+            String detail = String.format(Locale.US, "ratio=%.3f;MB/s=", (double) compressed.length / utf8.length);
+
+            long allocatedBefore = BenchmarkHarness.allocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                NoteBodyCodec.compress(utf8, level);
+            }
+            long elapsed = System.nanoTime() - start;
+            harness.record("deflate " + kind + " level " + level, utf8.length, iterations, elapsed,
+                    BenchmarkHarness.allocatedBytes() - allocatedBefore, detail + megabytesPerSecond(utf8.length, iterations, elapsed));
+
+            allocatedBefore = BenchmarkHarness.allocatedBytes();
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                NoteBodyCodec.decompress(compressed);
+            }
+            elapsed = System.nanoTime() - start;
+            harness.record("inflate " + kind + " level " + level, utf8.length, iterations, elapsed,
+                    BenchmarkHarness.allocatedBytes() - allocatedBefore, detail + megabytesPerSecond(utf8.length, iterations, elapsed));
+        }
+    }
+
+    private static String megabytesPerSecond(int bytes, int iterations, long elapsedNanos) {
+        return String.format(Locale.US, "%.1f", (double) bytes * iterations / (1024 * 1024) / (elapsedNanos / 1e9));
+    }
+
+    private static String randomText(Random random, int chars) {
+        StringBuilder text = new StringBuilder(chars);
+        for (int i = 0; i < chars; i++) {
+            text.append((char) (' ' + random.nextInt(95)));
+        }
+        return text.toString();
+    }
+}
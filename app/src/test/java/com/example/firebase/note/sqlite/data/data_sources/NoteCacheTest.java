@@ -0,0 +1,83 @@
+package com.example.firebase.note.sqlite.data.data_sources;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.app.Application;
+
+import com.example.firebase.note.sqlite.domain.entities.NoteEntity;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Checks that {@link NoteCache} never caches a value read before a write, and that user lists
+ * stay within the same character budget as single notes.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33, application = Application.class)
+public class NoteCacheTest {
+
+    @Test
+    public void ignoresNoteReadBeforeAWrite() {
+        NoteCache cache = new NoteCache(NoteCache.DEFAULT_MAX_CHARS);
+        long readVersion = cache.getVersion();
+
+        cache.onNoteWritten(new NoteEntity(1, "Title", "new text", "May 1, 2024"));
+        cache.putNote(new NoteEntity(1, "Title", "old text", "May 1, 2024"), readVersion);
+
+        assertEquals("new text", cache.getNote(1).getNote());
+    }
+
+    @Test
+    public void ignoresNoteReadBeforeADelete() {
+        NoteCache cache = new NoteCache(NoteCache.DEFAULT_MAX_CHARS);
+        long readVersion = cache.getVersion();
+
+        cache.onNoteDeleted(1);
+        cache.putNote(new NoteEntity(1, "Title", "text", "May 1, 2024"), readVersion);
+
+        assertNull(cache.getNote(1));
+    }
+
+    @Test
+    public void countsUserListsTowardTheBudget() {
+        NoteCache cache = new NoteCache(100);
+        List<NoteEntity> list = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            list.add(new NoteEntity(i, "Title", "0123456789", "May 1, 2024"));
+        }
+
+        cache.putUserList("alice", list, cache.getVersion());
+        assertNotNull(cache.getUserList("alice"));
+        assertEquals(1 + 4 * 16, cache.getSize());
+
+        // A second list does not fit next to the first, so the older one is evicted
+        cache.putUserList("bob", list, cache.getVersion());
+        assertNull(cache.getUserList("alice"));
+        assertNotNull(cache.getUserList("bob"));
+        assertTrue(cache.getSize() <= cache.getMaxSize());
+    }
+
+    @Test
+    public void writeDropsUserListsButKeepsNotes() {
+        NoteCache cache = new NoteCache(NoteCache.DEFAULT_MAX_CHARS);
+        NoteEntity first = new NoteEntity(1, "First", "text", "May 1, 2024");
+        cache.putNote(first, cache.getVersion());
+        cache.putUserList("alice", Arrays.asList(first), cache.getVersion());
+
+        cache.onNoteWritten(new NoteEntity(2, "Second", "text", "May 2, 2024"));
+
+        assertNull(cache.getUserList("alice"));
+        assertNotNull(cache.getNote(1));
+        assertNotNull(cache.getNote(2));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.firebase.note.sqlite.data.data_sources;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import android.app.Application;
+
+import com.example.firebase.note.sqlite.domain.entities.NoteEntity;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Round-trips notes through {@link NoteJsonLinesWriter} and {@link NoteJsonLinesReader}, on
+ * Robolectric's copy of {@code android.util.JsonWriter} and {@code JsonReader}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33, application = Application.class)
+public class NoteJsonLinesTest {
+    private static final String[][] NOTES = {
+            {"Groceries", "Milk\nEggs\n\"Good\" bread", "May 1, 2024"},
+            {"Ünïcødé ✓", "Tabs\tand \\ backslashes", "Jun 12, 2024"},
+            {"Line\u2028separator", "</script> {\"nested\": [1, 2]}", "Jul 3, 2024"},
+    };
+
+    @Test
+    public void roundTripsEveryNote() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        NoteJsonLinesWriter writer = new NoteJsonLinesWriter(bytes);
+        for (String[] note : NOTES) {
+            writer.write(note[0], note[1], note[2]);
+        }
+        writer.flush();
+
+        assertEquals(bytes.size(), writer.getByteCount());
+        String text = new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        assertEquals(NOTES.length, text.split("\n").length);
+
+        NoteJsonLinesReader reader = new NoteJsonLinesReader(new ByteArrayInputStream(bytes.toByteArray()));
+        for (String[] expected : NOTES) {
+            NoteEntity note = reader.next();
+            assertEquals(expected[0], note.getTitle());
+            assertEquals(expected[1], note.getNote());
+            assertEquals(expected[2], note.getDate());
+        }
+        assertNull(reader.next());
+        assertEquals(0, reader.getSkippedCount());
+    }
+
+    @Test
+    public void skipsMalformedLinesBetweenNotes() throws Exception {
+        String text = "{\"title\":\"a\",\"note\":\"b\",\"date\":\"c\"}\n"
+                + "not json\n"
+                + "\n"
+                + "{\"title\":\"d\",\"note\":\"e\",\"date\":\"f\"}\n";
+        NoteJsonLinesReader reader = new NoteJsonLinesReader(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("a", reader.next().getTitle());
+        assertEquals("d", reader.next().getTitle());
+        assertNull(reader.next());
+        assertEquals(1, reader.getSkippedCount());
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.firebase.note.sqlite.data.migrations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.app.Application;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.example.firebase.note.sqlite.data.data_sources.Database;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Upgrades a version 1 note database through the whole migration chain, on Robolectric's SQLite,
+ * and checks that the runner applies steps in order and that every step can safely run twice in a
+ * row.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33, application = Application.class)
+public class MigrationRunnerTest {
+    // Bump together with Database.DATABASE_VERSION, and assert what the new step adds
+    private static final int LATEST_VERSION = 6;
+
+    private SQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        db = SQLiteDatabase.create(null);
+        createVersionOneSchema(db);
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void upgradesVersionOneToLatest() {
+        MigrationRunner.forNoteDatabase().migrate(db, 1, LATEST_VERSION);
+
+        assertTrue(columns(db).containsAll(Arrays.asList(
+                "id", "title", "note", "date", "user_id", "day", "codec", "preview", "deleted_at")));
+
+        List<String> indexes = names(db, "index");
+        assertTrue(indexes.contains("idx_notetable_user_day_live"));
+        assertTrue(indexes.contains("idx_notetable_deleted"));
+        assertFalse(indexes.contains("idx_notetable_user_date"));
+        assertFalse(indexes.contains("idx_notetable_user_day"));
+
+        List<String> tables = names(db, "table");
+        assertTrue(tables.contains("notetable_fts"));
+        assertTrue(tables.contains("notetable_fts_packed"));
+
+        // Existing rows are backfilled; unparsable dates fall back to day 0
+        assertEquals(LocalDate.of(2024, 3, 7).toEpochDay(), longFor("SELECT day FROM notetable WHERE title = 'Groceries'"));
+        assertEquals(LocalDate.of(2024, 12, 25).toEpochDay(), longFor("SELECT day FROM notetable WHERE title = 'Trip'"));
+        assertEquals(0, longFor("SELECT day FROM notetable WHERE title = 'Broken'"));
+        assertEquals(0, longFor("SELECT count(*) FROM notetable WHERE codec != 0 OR deleted_at IS NOT NULL"));
+
+        // Existing rows were indexed for search, and the triggers index new ones
+        assertEquals(longFor("SELECT id FROM notetable WHERE title = 'Trip'"),
+                longFor("SELECT docid FROM notetable_fts WHERE notetable_fts MATCH 'tent'"));
+        db.execSQL("INSERT INTO notetable (title, note, date, user_id, day) VALUES ('Late', 'buy a lantern', '2025-1-2', 'alice', 0)");
+        assertEquals(longFor("SELECT id FROM notetable WHERE title = 'Late'"),
+                longFor("SELECT docid FROM notetable_fts WHERE notetable_fts MATCH 'lantern'"));
+    }
+
+    @Test
+    public void upgradesVersionOneFileWhenOpened() {
+        Context context = RuntimeEnvironment.getApplication();
+        String name = "migration-v1.db";
+        context.deleteDatabase(name);
+
+        SQLiteDatabase file = SQLiteDatabase.openOrCreateDatabase(context.getDatabasePath(name), null);
+        createVersionOneSchema(file);
+        file.setVersion(1);
+        file.close();
+
+        Database database = Database.createForTesting(context, name, "alice");
+        try {
+            assertEquals(LATEST_VERSION, database.getReadableDatabase().getVersion());
+            assertEquals(2, database.getAllNotesForUser().size());
+        } finally {
+            database.close();
+            context.deleteDatabase(name);
+        }
+    }
+
+    @Test
+    public void everyStepCanRunTwiceInARow() {
+        MigrationRunner runner = MigrationRunner.forNoteDatabase();
+        for (int version = 1; version < LATEST_VERSION; version++) {
+            SQLiteDatabase fresh = SQLiteDatabase.create(null);
+            try {
+                createVersionOneSchema(fresh);
+                runner.migrate(fresh, 1, version + 1);
+                String schema = schema(fresh);
+                List<String> columns = columns(fresh);
+
+                runner.migrate(fresh, version, version + 1);
+
+                assertEquals("Step from version " + version, schema, schema(fresh));
+                assertEquals("Step from version " + version, columns, columns(fresh));
+            } finally {
+                fresh.close();
+            }
+        }
+    }
+
+    @Test
+    public void appliesStepsInVersionOrder() {
+        List<Integer> applied = new ArrayList<>();
+        MigrationRunner runner = new MigrationRunner(Arrays.<Migration>asList(
+                new RecordingMigration(3, applied), new RecordingMigration(1, applied), new RecordingMigration(2, applied)));
+
+        runner.migrate(db, 1, 4);
+        assertEquals(Arrays.asList(1, 2, 3), applied);
+
+        applied.clear();
+        runner.migrate(db, 2, 4);
+        assertEquals(Arrays.asList(2, 3), applied);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTwoStepsFromTheSameVersion() {
+        List<Integer> applied = new ArrayList<>();
+        new MigrationRunner(Arrays.<Migration>asList(new RecordingMigration(1, applied), new RecordingMigration(1, applied)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void failsWhenAStepIsMissing() {
+        List<Integer> applied = new ArrayList<>();
+        new MigrationRunner(Arrays.<Migration>asList(new RecordingMigration(1, applied), new RecordingMigration(3, applied)))
+                .migrate(db, 1, 4);
+    }
+
+    private static void createVersionOneSchema(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE notetable (id INTEGER PRIMARY KEY AUTOINCREMENT, title TEXT NOT NULL, " +
+                "note TEXT NOT NULL, date TEXT NOT NULL, user_id TEXT NOT NULL)");
+        db.execSQL("INSERT INTO notetable (title, note, date, user_id) VALUES ('Groceries', 'milk and eggs', '2024-3-7', 'alice')");
+        db.execSQL("INSERT INTO notetable (title, note, date, user_id) VALUES ('Trip', 'pack the tent', '2024-12-25', 'alice')");
+        db.execSQL("INSERT INTO notetable (title, note, date, user_id) VALUES ('Broken', 'no real date', 'someday', 'bob')");
+    }
+
+    private long longFor(String query) {
+        return DatabaseUtils.longForQuery(db, query, null);
+    }
+
+    private static List<String> columns(SQLiteDatabase db) {
+        List<String> columns = new ArrayList<>();
+        try (Cursor cursor = db.rawQuery("PRAGMA table_info(notetable)", null)) {
+            while (cursor.moveToNext()) {
+                columns.add(cursor.getString(cursor.getColumnIndexOrThrow("name")));
+            }
+        }
+        return columns;
+    }
+
+    private static List<String> names(SQLiteDatabase db, String type) {
+        List<String> names = new ArrayList<>();
+        try (Cursor cursor = db.rawQuery("SELECT name FROM sqlite_master WHERE type = ?", new String[]{type})) {
+            while (cursor.moveToNext()) {
+                names.add(cursor.getString(0));
+            }
+        }
+        return names;
+    }
+
+    private static String schema(SQLiteDatabase db) {
+        StringBuilder schema = new StringBuilder();
+        try (Cursor cursor = db.rawQuery("SELECT type, name, sql FROM sqlite_master ORDER BY type, name", null)) {
+            while (cursor.moveToNext()) {
+                schema.append(cursor.getString(0)).append(' ').append(cursor.getString(1)).append(": ")
+                        .append(cursor.getString(2)).append('\n');
+            }
+        }
+        return schema.toString();
+    }
+
+    private static final class RecordingMigration extends Migration {
+        private final List<Integer> applied;
+
+        RecordingMigration(int startVersion, List<Integer> applied) {
+            super(startVersion);
+            this.applied = applied;
+        }
+
+        @Override
+        public void migrate(SQLiteDatabase db) {
+            applied.add(getStartVersion());
+        }
+    }
+}
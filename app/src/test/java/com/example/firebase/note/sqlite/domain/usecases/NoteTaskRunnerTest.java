@@ -0,0 +1,128 @@
+package com.example.firebase.note.sqlite.domain.usecases;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.Application;
+import android.content.Context;
+import android.os.Looper;
+
+import com.example.firebase.note.sqlite.data.data_sources.Database;
+import com.example.firebase.note.sqlite.domain.entities.NotePage;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Checks that background note operations cancelled by {@link NoteUseCases#cancelPendingServices()}
+ * never reach their callback and never leak the cursor of a page read, whether the work was still
+ * running or its result was already waiting for the main thread.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33, application = Application.class)
+public class NoteTaskRunnerTest {
+    private static final String DATABASE_NAME = "note-task-runner.db";
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    private final Context context = RuntimeEnvironment.getApplication();
+    private Database database;
+
+    @Before
+    public void setUp() {
+        context.deleteDatabase(DATABASE_NAME);
+        database = Database.createForTesting(context, DATABASE_NAME, "alice");
+        database.insertNoteData("First", "one", "2024-5-1");
+        database.insertNoteData("Second", "two", "2024-5-2");
+        database.insertNoteData("Third", "three", "2024-5-3");
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void closesPageFinishedAfterCancel() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicReference<NotePage> produced = new AtomicReference<>();
+        final AtomicInteger producedCount = new AtomicInteger(-1);
+        NoteUseCases useCases = new NoteUseCases(database) {
+            @Override
+            public NotePage readNotePageService(String pageToken, int pageSize) {
+                started.countDown();
+                try {
+                    release.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                NotePage page = super.readNotePageService(pageToken, pageSize);
+                producedCount.set(page.getNotes().size());
+                produced.set(page);
+                return page;
+            }
+        };
+        AtomicBoolean isDelivered = new AtomicBoolean();
+
+        useCases.readNotePageServiceAsync(null, 10, page -> isDelivered.set(true));
+        assertTrue(started.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        // As onDestroyView does while the read is still running
+        useCases.cancelPendingServices();
+        release.countDown();
+
+        // Closing a cursor-backed page clears its notes, so an empty page means the cursor was closed
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while ((produced.get() == null || !produced.get().getNotes().isEmpty()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertEquals(3, producedCount.get());
+        assertTrue(produced.get().getNotes().isEmpty());
+        assertFalse(isDelivered.get());
+    }
+
+    @Test
+    public void discardsPageQueuedForDeliveryWhenCancelled() throws Exception {
+        final AtomicReference<NotePage> produced = new AtomicReference<>();
+        NoteUseCases useCases = new NoteUseCases(database) {
+            @Override
+            public NotePage readNotePageService(String pageToken, int pageSize) {
+                NotePage page = super.readNotePageService(pageToken, pageSize);
+                produced.set(page);
+                return page;
+            }
+        };
+        AtomicBoolean isDelivered = new AtomicBoolean();
+
+        Future<NotePage> task = useCases.readNotePageServiceAsync(null, 10, page -> isDelivered.set(true));
+        task.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        // The work is done but its delivery still waits on the paused main looper
+        useCases.cancelPendingServices();
+        // done() may post the delivery just after get() returns, so keep draining until it ran
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        shadowOf(Looper.getMainLooper()).idle();
+        while (!produced.get().getNotes().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+
+        assertFalse(isDelivered.get());
+        assertTrue(produced.get().getNotes().isEmpty());
+    }
+}